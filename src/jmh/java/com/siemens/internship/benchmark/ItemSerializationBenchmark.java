@@ -0,0 +1,83 @@
+package com.siemens.internship.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.siemens.internship.config.ItemJsonSerializer;
+import com.siemens.internship.model.Item;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the ways an item list can be written to a response body:
+ * <ul>
+ *     <li>{@code databind} - bean serialization, the path used before {@link ItemJsonSerializer}</li>
+ *     <li>{@code handwritten} - an ObjectMapper using {@link ItemJsonSerializer}, as {@code GET /api/items} does</li>
+ *     <li>{@code generator} - {@link ItemJsonSerializer#write} on one generator, as {@code GET /api/items/stream} does</li>
+ *     <li>{@code smile} - the Smile encoding offered through content negotiation</li>
+ * </ul>
+ * The payload size of each format is printed at setup. For allocations per operation run with the GC profiler:
+ * {@code mvn -Pjmh verify -Djmh.args="ItemSerializationBenchmark -prof gc"} and read {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemSerializationBenchmark {
+
+    @Param({"databind", "handwritten", "generator", "smile"})
+    private String format;
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private List<Item> items;
+    private ObjectMapper mapper;
+    private ByteArrayOutputStream out;
+
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        items = IntStream.range(0, size)
+                .mapToObj(i -> {
+                    Item item = new Item((long) i, "Item" + i, "Description of item " + i,
+                            i % 3 == 0 ? "PROCESSED" : "NEW", "item" + i + "@domain.com");
+                    item.setVersion((long) i % 5);
+                    return item;
+                })
+                .toList();
+        SimpleModule itemModule = new SimpleModule().addSerializer(new ItemJsonSerializer());
+        mapper = switch (format) {
+            case "databind" -> new ObjectMapper();
+            case "smile" -> new ObjectMapper(new SmileFactory()).registerModule(itemModule);
+            default -> new ObjectMapper().registerModule(itemModule);
+        };
+        out = new ByteArrayOutputStream(1 << 20);
+        serialize();
+        System.out.printf("%n%s, %d items: %d bytes/op%n", format, size, out.size());
+    }
+
+    @Benchmark
+    public int serialize() throws IOException {
+        out.reset();
+        if (format.equals("generator")) {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                for (Item item : items) {
+                    ItemJsonSerializer.write(item, generator);
+                }
+                generator.writeEndArray();
+            }
+        } else {
+            mapper.writeValue(out, items);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,151 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.Application;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemPage;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.service.BatchRunStats;
+import com.siemens.internship.service.ItemBatchProcessor;
+import com.siemens.internship.service.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmarks the service and persistence hot paths against an embedded H2 database seeded with
+ * {@code size} items. Run with {@code mvn -Pjmh verify}; results are written to {@code target/jmh-result.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemServiceBenchmark {
+    private static final int SEED_CHUNK = 1000;
+    private static final int PAGE_SIZE = 1000;
+    private static final int SAVE_BATCH = 1000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private ItemRepository itemRepository;
+    private ItemBatchProcessor itemBatchProcessor;
+    private JdbcTemplate jdbcTemplate;
+    private long[] ids;
+    private long maxSeededId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:jmh",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=warn")
+                .run();
+        itemService = context.getBean(ItemService.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        itemBatchProcessor = context.getBean(ItemBatchProcessor.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        for (int from = 0; from < size; from += SEED_CHUNK) {
+            itemService.saveAll(newItems(from, Math.min(size, from + SEED_CHUNK)));
+        }
+        ids = itemRepository.findAllIds().stream().mapToLong(Long::longValue).sorted().toArray();
+        maxSeededId = ids[ids.length - 1];
+    }
+
+    /**
+     * Restores the seeded state, so that every iteration starts from the same table: saved items are removed,
+     * processed items are NEW again and the changes recorded by saves and processing runs are dropped.
+     */
+    @TearDown(Level.Iteration)
+    public void resetItems() {
+        jdbcTemplate.update("DELETE FROM item WHERE id > ?", maxSeededId);
+        jdbcTemplate.update("UPDATE item SET status = 'NEW' WHERE status <> 'NEW'");
+        jdbcTemplate.update("DELETE FROM item_change");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private static List<Item> newItems(int from, int to) {
+        return IntStream.range(from, to)
+                .mapToObj(i -> new Item(null, "Item" + i, "Description" + i, "NEW", "item" + i + "@domain.com"))
+                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    }
+
+    /**
+     * A single lookup through the service, served from the item cache once warmed up.
+     */
+    @Benchmark
+    public Item singleGet() {
+        return itemService.findById(randomId()).orElseThrow();
+    }
+
+    /**
+     * A single lookup that bypasses the cache and always hits the database.
+     */
+    @Benchmark
+    public Item singleGetUncached() {
+        return itemRepository.findById(randomId()).orElseThrow();
+    }
+
+    /**
+     * Loads the whole table at once, as {@code GET /api/items} does.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Item> fullScan() {
+        return itemService.findAll();
+    }
+
+    /**
+     * Walks the whole table page by page using keyset pagination.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void pagedScan(Blackhole blackhole) {
+        Long after = null;
+        do {
+            ItemPage<Item> page = itemService.findPage(after, PAGE_SIZE);
+            blackhole.consume(page.items());
+            after = page.nextCursor();
+        } while (after != null);
+    }
+
+    /**
+     * Inserts {@value #SAVE_BATCH} new items in one batched transaction.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Item> batchedSave() {
+        return itemService.saveAll(newItems(0, SAVE_BATCH));
+    }
+
+    /**
+     * A complete processing run over every item.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public BatchRunStats processingRun() {
+        return itemBatchProcessor.processAll((ids, processed, failed) -> { });
+    }
+}
@@ -0,0 +1,22 @@
+package com.siemens.internship.config;
+
+import com.siemens.internship.controller.AdmissionInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts {@link AdmissionInterceptor} in front of the REST API. Actuator endpoints are not limited,
+ * so health probes and metric scrapes keep working while the API is overloaded.
+ */
+@Configuration
+public class AdmissionConfig implements WebMvcConfigurer {
+    @Autowired
+    private AdmissionInterceptor admissionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,55 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Admission control of the REST API, bound from the {@code item.admission.*} properties.
+ * <p>
+ * Every client, identified by its remote address, gets one token bucket for cheap and one for expensive
+ * endpoints. Behind a reverse proxy, set {@code server.forward-headers-strategy} so the remote address is the
+ * client's and not the proxy's.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "item.admission")
+public class AdmissionProperties {
+
+    /**
+     * Whether requests are rate and concurrency limited at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Sustained rate of requests per client to cheap endpoints.
+     */
+    private double requestsPerSecond = 50;
+
+    /**
+     * Requests per client to cheap endpoints that are admitted at once after a quiet period.
+     */
+    private int burst = 100;
+
+    /**
+     * Sustained rate of requests per client to expensive endpoints, such as full listings, bulk writes
+     * and processing runs.
+     */
+    private double expensiveRequestsPerSecond = 1;
+
+    /**
+     * Requests per client to expensive endpoints that are admitted at once after a quiet period.
+     */
+    private int expensiveBurst = 10;
+
+    /**
+     * Requests to expensive endpoints served at the same time, across all clients. Kept below the size of
+     * the connection pool so cheap requests always find a connection.
+     */
+    private int expensiveConcurrency = 4;
+
+    /**
+     * Number of clients whose buckets are kept; the least recently seen are dropped beyond that.
+     */
+    private long maxClients = 100_000;
+}
@@ -0,0 +1,98 @@
+package com.siemens.internship.config;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.service.ItemService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the application up before it takes traffic. Spring Boot marks the application ready, and the readiness
+ * probe starts to succeed, only after all runners have returned, so no client request ever hits a cold instance.
+ * <p>
+ * The warmup loads the first {@link WarmupProperties#getCacheSize()} items into the item cache and then calls
+ * the read endpoints {@link WarmupProperties#getIterations()} times each through the local server. The latency of
+ * the first and of the last call of every endpoint is recorded in the {@code item.warmup.requests} timer,
+ * tagged with {@code uri} and {@code call}, which shows what a first request costs on a cold instance.
+ * <p>
+ * The warmup is best-effort: an endpoint that fails, for example because the admission limits reject the calls,
+ * is logged and skipped, and startup goes on.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "item.warmup", name = "enabled", havingValue = "true")
+public class ApplicationWarmup implements ApplicationRunner {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private WarmupProperties properties;
+    @Autowired
+    private ApplicationContext applicationContext;
+    @Autowired
+    private RestClient.Builder restClientBuilder;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        List<Item> cached = itemService.warmCache(properties.getCacheSize());
+        log.info("Loaded {} items into the item cache", cached.size());
+
+        if (applicationContext instanceof WebServerApplicationContext web) {
+            RestClient client = restClientBuilder
+                    .baseUrl("http://localhost:" + web.getWebServer().getPort())
+                    .build();
+            warmUp(client, "/api/items?limit=100", "/api/items");
+            warmUp(client, "/api/items/status-counts", "/api/items/status-counts");
+            warmUp(client, "/api/items/query?status=NEW&limit=100", "/api/items/query");
+            if (!cached.isEmpty()) {
+                warmUp(client, "/api/items/" + cached.get(0).getId(), "/api/items/{id}");
+            }
+        }
+        log.info("Warmup finished in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void warmUp(RestClient client, String uri, String template) {
+        long first = 0;
+        long last = 0;
+        for (int i = 0; i < properties.getIterations(); i++) {
+            long start = System.nanoTime();
+            try {
+                client.get().uri(uri).retrieve().toBodilessEntity();
+            } catch (RestClientException e) {
+                log.warn("Skipped warming up {} after {} calls: {}", template, i, e.getMessage());
+                return;
+            }
+            last = System.nanoTime() - start;
+            if (i == 0) {
+                first = last;
+            }
+        }
+        record(template, "first", first);
+        record(template, "last", last);
+        log.info("Warmed up {}: first call {} ms, last call {} ms", template,
+                String.format("%.1f", first / 1e6), String.format("%.1f", last / 1e6));
+    }
+
+    private void record(String template, String call, long nanos) {
+        Timer.builder("item.warmup.requests")
+                .description("Latency of the first and last warmup call of each read endpoint")
+                .tag("uri", template)
+                .tag("call", call)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,66 @@
+package com.siemens.internship.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs {@code @Async} service methods on a dedicated, bounded thread pool, so that controllers returning their
+ * futures give the servlet thread back while the database works. A full queue rejects the task, which the
+ * controllers answer with SERVICE_UNAVAILABLE instead of letting requests pile up.
+ * <p>
+ * The pool is handed to Spring through {@link AsyncConfigurer} instead of being declared as a bean: any
+ * {@link Executor} bean would replace Boot's {@code applicationTaskExecutor}, which runs the processing jobs
+ * and the asynchronous request handling of Spring MVC.
+ */
+@Slf4j
+@Configuration
+@EnableAsync
+public class AsyncConfig implements AsyncConfigurer, DisposableBean {
+    public static final String EXECUTOR_NAME = "item.async";
+
+    @Autowired
+    private AsyncProperties properties;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @Override
+    public synchronized Executor getAsyncExecutor() {
+        if (executor == null) {
+            executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(properties.getThreads());
+            executor.setMaxPoolSize(properties.getThreads());
+            executor.setQueueCapacity(properties.getQueueCapacity());
+            executor.setThreadNamePrefix("item-async-");
+            executor.initialize();
+            new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), EXECUTOR_NAME, List.of()).bindTo(meterRegistry);
+            log.info("@Async methods run on {} threads with a queue of {}",
+                    properties.getThreads(), properties.getQueueCapacity());
+        }
+        return executor;
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (e, method, params) -> log.error("@Async method {} failed", method.getName(), e);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the executor running {@code @Async} service methods, bound from the {@code item.async.*} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "item.async")
+public class AsyncProperties {
+
+    /**
+     * Number of threads. Every task holds a database connection while it runs, so more threads than the pool
+     * has connections only wait for one.
+     */
+    private int threads = 10;
+
+    /**
+     * Number of tasks waiting for a thread before further ones are rejected with SERVICE_UNAVAILABLE.
+     */
+    private int queueCapacity = 1000;
+}
@@ -0,0 +1,36 @@
+package com.siemens.internship.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * In-process Caffeine caches, sized and expired by {@code spring.cache.caffeine.spec}.
+ * <p>
+ * The cache manager is transaction aware: puts and evictions issued inside a transaction are applied only
+ * after it commits, so a concurrent reader cannot re-populate the cache with the state being replaced.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+    public static final String ITEMS_CACHE = "items";
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties cacheProperties) {
+        String spec = cacheProperties.getCaffeine().getSpec();
+        Caffeine<Object, Object> caffeine = StringUtils.hasText(spec) ? Caffeine.from(spec) : Caffeine.newBuilder();
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(ITEMS_CACHE);
+        cacheManager.setCaffeine(caffeine.recordStats());
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
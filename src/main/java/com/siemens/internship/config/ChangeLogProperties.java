@@ -0,0 +1,30 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the item change log, bound from the {@code item.changes.*} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "item.changes")
+public class ChangeLogProperties {
+
+    /**
+     * How old a change has to be before readers of the log see it. Sequence numbers are assigned when a change
+     * is written, not when it commits, so a reader that moved past a number must not find an older number
+     * appearing later. Must exceed the longest transaction writing items.
+     */
+    private Duration settleTime = Duration.ofSeconds(1);
+
+    /**
+     * How far before the end of the range covered by the last run an incremental processing run starts. Changes
+     * in the overlap are processed again, which is harmless, while a change that settled late because a
+     * transaction outlived the settle time is still picked up.
+     */
+    private Duration overlap = Duration.ofSeconds(10);
+}
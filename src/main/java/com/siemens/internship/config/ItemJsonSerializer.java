@@ -0,0 +1,75 @@
+package com.siemens.internship.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.siemens.internship.model.Item;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Hand-written serializer for {@link Item}, registered with the application's ObjectMapper and therefore used
+ * for JSON and Smile responses alike.
+ * <p>
+ * Bean serialization goes through a property writer and an accessor call per field. This serializer writes
+ * the fields straight to the generator, with field names encoded once up front, which serializes large item
+ * lists measurably faster (see {@code ItemSerializationBenchmark}). The output is the same as that of bean
+ * serialization: every field in declaration order, {@code version} only once the item has one.
+ */
+@JsonComponent
+public class ItemJsonSerializer extends StdSerializer<Item> {
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString VERSION = new SerializedString("version");
+
+    public ItemJsonSerializer() {
+        super(Item.class);
+    }
+
+    @Override
+    public void serialize(Item item, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        write(item, generator);
+    }
+
+    /**
+     * Writes an item without going through an ObjectMapper, for callers that drive a generator themselves.
+     *
+     * @param item      the item to be written
+     * @param generator the generator to write to
+     * @throws IOException if writing fails
+     */
+    public static void write(Item item, JsonGenerator generator) throws IOException {
+        generator.writeStartObject(item);
+        generator.writeFieldName(ID);
+        if (item.getId() != null) {
+            generator.writeNumber(item.getId());
+        } else {
+            generator.writeNull();
+        }
+        writeString(generator, NAME, item.getName());
+        writeString(generator, DESCRIPTION, item.getDescription());
+        writeString(generator, STATUS, item.getStatus());
+        writeString(generator, EMAIL, item.getEmail());
+        if (item.getVersion() != null) {
+            generator.writeFieldName(VERSION);
+            generator.writeNumber(item.getVersion());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeString(JsonGenerator generator, SerializableString name, String value)
+            throws IOException {
+        generator.writeFieldName(name);
+        if (value != null) {
+            generator.writeString(value);
+        } else {
+            generator.writeNull();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tunables for the item processing engine, bound from the {@code item.processing.*} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "item.processing")
+public class ItemProcessingProperties {
+
+    /**
+     * Number of item ids paged, loaded and written back per chunk (and per transaction).
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Kind of executor the chunks are processed on.
+     */
+    private ExecutorMode executor = ExecutorMode.FIXED;
+
+    /**
+     * Number of worker threads of the fixed and work-stealing executors. Ignored by the virtual executor.
+     */
+    private int threads = 10;
+
+    /**
+     * Maximum number of chunks processed at the same time. Zero sizes it to the connection pool minus two
+     * connections kept for requests, since every chunk in flight holds one connection.
+     */
+    private int maxConcurrency = 0;
+
+    /**
+     * Number of progress events buffered between a streamed run and its client. Once the buffer is full,
+     * processing waits for the client to catch up.
+     */
+    private int streamBufferSize = 16;
+
+    /**
+     * How often a chunk transaction is retried after losing a write conflict, e.g. a lock timeout
+     * or deadlock with a concurrent update of the same items, before the chunk counts as failed.
+     */
+    private int conflictRetries = 3;
+
+    /**
+     * Pause before the first retry of a conflicting chunk. It doubles with every further retry
+     * and is randomized by up to half, so that the conflicting writers do not retry in lockstep.
+     */
+    private Duration conflictBackoff = Duration.ofMillis(50);
+
+    /**
+     * How often a single item is retried before it goes to the dead letters: when its chunk failed for another
+     * reason than a write conflict, the items of the chunk are retried one by one; and a processing stage is
+     * retried for an item it failed on, unless it rejected the item.
+     */
+    private int itemRetries = 2;
+
+    /**
+     * Pause before the first retry of an item, doubled with every further retry and randomized like
+     * {@code conflictBackoff}.
+     */
+    private Duration itemRetryBackoff = Duration.ofMillis(20);
+
+    /**
+     * Number of item ids per partition of a processing job. A partition is the unit of work a node claims
+     * through a lease; it is processed in chunks of {@code chunkSize}.
+     */
+    private int partitionSize = 10_000;
+
+    /**
+     * How long a claimed partition stays leased to a node without a heartbeat. Leases are renewed every
+     * third of this, so a partition of a node that died is taken over by another node after at most this long.
+     */
+    private Duration leaseDuration = Duration.ofSeconds(30);
+
+    /**
+     * How often a node looks for partitions of running jobs to help with. Zero disables polling, so the node
+     * only works on the jobs it started itself.
+     */
+    private Duration leasePollInterval = Duration.ofSeconds(5);
+
+    /**
+     * Name under which this node claims leases. Defaults to the host name plus a random suffix,
+     * which is unique per running instance.
+     */
+    private String nodeId;
+
+    /**
+     * Settings of the stages of the processing pipeline by stage name: {@code load}, the name of every
+     * registered {@code ItemProcessor}, and {@code persist}. Stages without an entry use the defaults of
+     * {@link Stage}; {@code persist} defaults to {@code maxConcurrency} threads, one per connection.
+     */
+    private Map<String, Stage> stages = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Stage {
+
+        /**
+         * Number of worker threads of the stage, i.e. chunks the stage works on at the same time.
+         */
+        private Integer threads;
+
+        /**
+         * Number of chunks waiting for the stage before the stage in front of it has to wait.
+         */
+        private int queueCapacity = 4;
+    }
+
+    public enum ExecutorMode {
+        /**
+         * A fixed pool of {@code threads} platform threads.
+         */
+        FIXED,
+        /**
+         * A work-stealing fork/join pool with a parallelism of {@code threads}.
+         */
+        WORK_STEALING,
+        /**
+         * A new virtual thread per chunk. Requires Java 21; falls back to WORK_STEALING on older runtimes.
+         */
+        VIRTUAL
+    }
+}
@@ -0,0 +1,47 @@
+package com.siemens.internship.config;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Factory for the executors that item chunks are processed on.
+ * <p>
+ * The executors are deliberately not exposed as beans: any {@code Executor} bean in the context
+ * makes Spring Boot back off from creating its own application task executor.
+ */
+@Slf4j
+public final class ProcessingExecutors {
+
+    private ProcessingExecutors() {
+    }
+
+    /**
+     * Creates an executor of the given kind.
+     *
+     * @param mode    the kind of executor
+     * @param threads the number of worker threads, ignored for virtual threads
+     * @return the new executor
+     */
+    public static ExecutorService create(ItemProcessingProperties.ExecutorMode mode, int threads) {
+        return switch (mode) {
+            case FIXED -> Executors.newFixedThreadPool(threads);
+            case WORK_STEALING -> Executors.newWorkStealingPool(threads);
+            case VIRTUAL -> newVirtualThreadPerTaskExecutor(threads);
+        };
+    }
+
+    /**
+     * The project still compiles for Java 17, so the Java 21 factory method is looked up reflectively.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor(int fallbackThreads) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not available on Java {}, falling back to a work-stealing pool",
+                    Runtime.version().feature());
+            return Executors.newWorkStealingPool(fallbackThreads);
+        }
+    }
+}
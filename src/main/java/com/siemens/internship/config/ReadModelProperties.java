@@ -0,0 +1,37 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of the in-memory item read model, bound from the {@code item.read-model.*} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "item.read-model")
+public class ReadModelProperties {
+
+    /**
+     * Whether to keep all items in memory and serve lookups by ID and status counts from there.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How often the read model applies new entries of the item change log.
+     */
+    private Duration refreshInterval = Duration.ofMillis(200);
+
+    /**
+     * Size of the off-heap segments holding the text fields of the items.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(16);
+
+    /**
+     * Number of items or changes read from the database at a time while loading or refreshing.
+     */
+    private int batchSize = 1000;
+}
@@ -0,0 +1,30 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the startup warmup, bound from the {@code item.warmup.*} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "item.warmup")
+public class WarmupProperties {
+
+    /**
+     * Whether to warm the application up before it reports ready.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Number of items loaded into the item cache.
+     */
+    private int cacheSize = 1000;
+
+    /**
+     * Number of calls to each read endpoint through the local server, enough for the JIT to compile
+     * the request path from Tomcat down to the database.
+     */
+    private int iterations = 100;
+}
@@ -0,0 +1,171 @@
+package com.siemens.internship.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.siemens.internship.config.AdmissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control in front of the REST API. A request is rejected right away with 429 Too Many Requests
+ * and a {@code Retry-After} header when
+ * <ul>
+ *     <li>its client has used up its token bucket for the kind of endpoint, or</li>
+ *     <li>the endpoint is {@link Expensive} and {@link AdmissionProperties#getExpensiveConcurrency()} expensive
+ *     requests are already being served.</li>
+ * </ul>
+ * Rejecting instead of queueing keeps a flood of expensive requests from tying up Tomcat threads and
+ * connections, so cheap requests such as a lookup by ID keep their latency during overload.
+ * <p>
+ * Streaming responses keep their permit until the response is complete. Requests arriving before the
+ * application is ready, i.e. those of the startup warmup, are not limited. Rejections are counted in
+ * {@code item.admission.rejected}, tagged by {@code reason}.
+ */
+@Component
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+    private static final String PERMIT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".permit";
+
+    @Autowired
+    private AdmissionProperties properties;
+    @Autowired
+    private ApplicationAvailability availability;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<String, TokenBucket> buckets;
+    private Semaphore expensiveRequests;
+    private Counter rateRejections;
+    private Counter concurrencyRejections;
+
+    @PostConstruct
+    void init() {
+        buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        expensiveRequests = new Semaphore(properties.getExpensiveConcurrency());
+        rateRejections = rejections("rate");
+        concurrencyRejections = rejections("concurrency");
+    }
+
+    private Counter rejections(String reason) {
+        return Counter.builder("item.admission.rejected")
+                .description("Requests rejected by admission control")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!properties.isEnabled()
+                || request.getDispatcherType() != DispatcherType.REQUEST
+                || availability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return true;
+        }
+        boolean expensive = handler instanceof HandlerMethod method && method.hasMethodAnnotation(Expensive.class);
+
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(request.getRemoteAddr() + (expensive ? "|expensive" : ""), key -> expensive
+                ? new TokenBucket(properties.getExpensiveBurst(), properties.getExpensiveRequestsPerSecond(), now)
+                : new TokenBucket(properties.getBurst(), properties.getRequestsPerSecond(), now));
+        long waitNanos = bucket.tryTake(now);
+        if (waitNanos > 0) {
+            rateRejections.increment();
+            return reject(response, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)),
+                    "Rate limit exceeded");
+        }
+
+        if (expensive) {
+            if (!expensiveRequests.tryAcquire()) {
+                concurrencyRejections.increment();
+                return reject(response, 1, "Too many expensive requests in progress");
+            }
+            request.setAttribute(PERMIT_ATTRIBUTE, new Permit(expensiveRequests));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+            request.getAsyncContext().addListener(permit);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!request.isAsyncStarted() && request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+            permit.release();
+        }
+    }
+
+    private static boolean reject(HttpServletResponse response, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(message);
+        return false;
+    }
+
+    /**
+     * A permit of the expensive request limit, released exactly once when the request is done, whether that
+     * is at the end of the handler or, for streaming responses, when the async request completes.
+     */
+    private static class Permit implements AsyncListener {
+        private final Semaphore semaphore;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Permit(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
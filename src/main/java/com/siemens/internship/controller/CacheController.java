@@ -0,0 +1,67 @@
+package com.siemens.internship.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.siemens.internship.model.CacheStatistics;
+import com.siemens.internship.model.ReadModelStatistics;
+import com.siemens.internship.service.ItemReadModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * The CacheController class is a REST controller that exposes the hit, miss and eviction statistics
+ * of the in-process caches, and the memory use of the item read model.
+ */
+@RestController
+@RequestMapping("/api/caches")
+public class CacheController {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired(required = false)
+    private ItemReadModel itemReadModel;
+
+    /**
+     * Retrieves the memory use of the in-memory item read model, per item and in total, next to an estimate of
+     * the heap taken per item by the entity cache.
+     *
+     * @return a ResponseEntity containing the statistics with an HTTP status of OK,
+     *         or an HTTP status of NOT_FOUND if the read model is not enabled
+     */
+    @GetMapping("/read-model")
+    public ResponseEntity<ReadModelStatistics> getReadModelStatistics() {
+        if (itemReadModel == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(itemReadModel.statistics(), HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the statistics of a cache.
+     *
+     * @param name the name of the cache
+     * @return a ResponseEntity containing the statistics with an HTTP status of OK,
+     *         or an HTTP status of NOT_FOUND if there is no Caffeine cache with that name
+     */
+    @GetMapping("/{name}")
+    public ResponseEntity<CacheStatistics> getCacheStatistics(@PathVariable String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        if (cache == null || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine)) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        CacheStats stats = caffeine.stats();
+        return new ResponseEntity<>(new CacheStatistics(name, caffeine.estimatedSize(), stats.hitCount(),
+                stats.missCount(), stats.hitRate(), stats.evictionCount()), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,18 @@
+package com.siemens.internship.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler method whose requests hold a worker thread or a database connection for long, or start
+ * background work. {@link AdmissionInterceptor} admits them at a lower rate per client and limits how many
+ * are served at the same time.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Expensive {
+}
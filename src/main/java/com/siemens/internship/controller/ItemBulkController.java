@@ -0,0 +1,80 @@
+package com.siemens.internship.controller;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siemens.internship.model.BulkResponse;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.service.ItemBulkService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The ItemBulkController class is a REST controller that creates, updates and deletes many items per request.
+ * Items can be sent either as a JSON array or as newline-delimited JSON; they are read from the request body
+ * one at a time, so uploads of any size are never held in memory as a whole.
+ */
+@RestController
+@RequestMapping("/api/items/bulk")
+public class ItemBulkController {
+
+    @Autowired
+    private ItemBulkService itemBulkService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Creates all items in the request body.
+     *
+     * @param body a JSON array or newline-delimited JSON stream of items
+     * @return a ResponseEntity containing the outcome of every item with an HTTP status of CREATED
+     *         if all items were created, or MULTI_STATUS if some of them were rejected
+     */
+    @Expensive
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, ItemController.NDJSON_VALUE})
+    public ResponseEntity<BulkResponse> createItems(InputStream body) throws IOException {
+        try (MappingIterator<Item> items = objectMapper.readerFor(Item.class).readValues(body)) {
+            return respond(itemBulkService.createAll(items), HttpStatus.CREATED);
+        }
+    }
+
+    /**
+     * Updates all items in the request body. Every item must carry its ID.
+     *
+     * @param body a JSON array or newline-delimited JSON stream of items
+     * @return a ResponseEntity containing the outcome of every item with an HTTP status of OK
+     *         if all items were updated, or MULTI_STATUS if some of them were rejected or not found
+     */
+    @Expensive
+    @PutMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, ItemController.NDJSON_VALUE})
+    public ResponseEntity<BulkResponse> updateItems(InputStream body) throws IOException {
+        try (MappingIterator<Item> items = objectMapper.readerFor(Item.class).readValues(body)) {
+            return respond(itemBulkService.updateAll(items), HttpStatus.OK);
+        }
+    }
+
+    /**
+     * Deletes all items with the given IDs. Like single deletes, it does so silently. The chunks are deleted
+     * concurrently on the {@code @Async} executor, and the response is sent once all of them have committed.
+     *
+     * @param ids the unique identifiers of the items to be deleted
+     * @return a future of a ResponseEntity with an HTTP status of NO_CONTENT
+     */
+    @Expensive
+    @DeleteMapping
+    public CompletableFuture<ResponseEntity<Void>> deleteItems(@RequestBody List<Long> ids) {
+        return itemBulkService.deleteAll(ids).thenApply(done -> new ResponseEntity<>(HttpStatus.NO_CONTENT));
+    }
+
+    private static ResponseEntity<BulkResponse> respond(BulkResponse response, HttpStatus successStatus) {
+        return new ResponseEntity<>(response, response.failed() == 0 ? successStatus : HttpStatus.MULTI_STATUS);
+    }
+}
@@ -1,40 +1,238 @@
 package com.siemens.internship.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siemens.internship.config.ItemJsonSerializer;
+import com.siemens.internship.config.SmileConfig;
 import com.siemens.internship.exception.ItemInsertionException;
-import com.siemens.internship.service.ItemService;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemChange;
+import com.siemens.internship.model.ItemFilter;
+import com.siemens.internship.model.ItemPage;
+import com.siemens.internship.model.ItemStatusUpdate;
+import com.siemens.internship.model.ItemSummary;
+import com.siemens.internship.model.ReindexResult;
+import com.siemens.internship.model.SearchPage;
+import com.siemens.internship.model.StatusCount;
+import com.siemens.internship.service.ItemChangeService;
+import com.siemens.internship.service.ItemReadModel;
+import com.siemens.internship.service.ItemSearchService;
+import com.siemens.internship.service.ItemService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The ItemController class is a REST controller that provides endpoints
- * to perform CRUD operations on Item entities. It also includes a
- * method to asynchronously process items.
+ * to perform CRUD operations on Item entities. Processing runs are
+ * handled by the {@link ProcessingJobController}.
  */
 @RestController
 @RequestMapping("/api/items")
 public class ItemController {
 
+    static final String NDJSON_VALUE = "application/x-ndjson";
+    static final int MAX_PAGE_SIZE = 1000;
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_SEARCH_OFFSET = 10_000;
+
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private ItemChangeService itemChangeService;
+
+    @Autowired(required = false)
+    private ItemReadModel itemReadModel;
+
+    @Autowired
+    private ItemSearchService itemSearchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
-     * Retrieves all items from the database.
+     * Retrieves all items from the database. Served as JSON, or as Smile if the client accepts
+     * {@value SmileConfig#SMILE_VALUE}.
      *
      * @return a ResponseEntity containing a list of all items with an HTTP status of OK
      */
+    @Expensive
     @GetMapping
     public ResponseEntity<List<Item>> getAllItems() {
         return new ResponseEntity<>(itemService.findAll(), HttpStatus.OK);
     }
 
+    /**
+     * Retrieves one page of items ordered by ID using keyset pagination. The page is read on the {@code @Async}
+     * executor, so the servlet thread is released while the database works.
+     *
+     * @param after the ID of the last item of the previous page, omitted for the first page
+     * @param limit the maximum number of items on the page, between 1 and {@value #MAX_PAGE_SIZE}
+     * @return a future of a ResponseEntity containing the page and the cursor of the next page with an HTTP status
+     *         of OK, or an HTTP status of BAD_REQUEST if the limit is out of range
+     */
+    @GetMapping(params = "limit")
+    public CompletableFuture<ResponseEntity<ItemPage<Item>>> getItemPage(@RequestParam(required = false) Long after,
+                                                                        @RequestParam int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        }
+        return itemService.findPageAsync(after, limit).thenApply(page -> new ResponseEntity<>(page, HttpStatus.OK));
+    }
+
+    /**
+     * Retrieves the page of {@value #DEFAULT_PAGE_SIZE} items following the given cursor, so that a cursor
+     * without a limit still reads a single page instead of falling through to {@link #getAllItems()}.
+     *
+     * @param after the ID of the last item of the previous page
+     * @return a future of a ResponseEntity containing the page and the cursor of the next page with an HTTP status
+     *         of OK
+     */
+    @GetMapping(params = {"after", "!limit"})
+    public CompletableFuture<ResponseEntity<ItemPage<Item>>> getItemPageAfter(@RequestParam Long after) {
+        return getItemPage(after, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Retrieves summaries of the items matching all given criteria, keyset-paginated by ID.
+     * Each criterion is backed by a database index, and only the summary columns are read, on the
+     * {@code @Async} executor.
+     *
+     * @param status        only items with exactly this status
+     * @param excludeStatus only items with any other status, e.g. {@code PROCESSED} to list unprocessed items
+     * @param email         only items with exactly this email
+     * @param namePrefix    only items whose name starts with this prefix
+     * @param after         the ID of the last item of the previous page, omitted for the first page
+     * @param limit         the maximum number of items on the page, between 1 and {@value #MAX_PAGE_SIZE}
+     * @return a future of a ResponseEntity containing the page of summaries with an HTTP status of OK,
+     *         or an HTTP status of BAD_REQUEST if the limit is out of range
+     */
+    @GetMapping("/query")
+    public CompletableFuture<ResponseEntity<ItemPage<ItemSummary>>> queryItems(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String excludeStatus,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        }
+        ItemFilter filter = new ItemFilter(status, excludeStatus, email, namePrefix);
+        return itemService.findSummariesAsync(filter, after, limit)
+                .thenApply(page -> new ResponseEntity<>(page, HttpStatus.OK));
+    }
+
+    /**
+     * Retrieves the item creates, updates and deletes recorded after the given sequence number, in the order
+     * they were recorded. Consumers tail the log by passing the returned cursor as {@code since} of their next
+     * request, which reads the log by its primary key instead of scanning the items.
+     *
+     * @param since the sequence number of the last change already consumed, omitted to start from the beginning
+     * @param limit the maximum number of changes on the page, between 1 and {@value #MAX_PAGE_SIZE}
+     * @return a ResponseEntity containing the page of changes and the cursor to continue from with an HTTP status
+     *         of OK, or an HTTP status of BAD_REQUEST if the limit is out of range
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ItemPage<ItemChange>> getChanges(@RequestParam(required = false) Long since,
+                                                           @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(itemChangeService.findChanges(since, limit), HttpStatus.OK);
+    }
+
+    /**
+     * Counts the items per status, on the {@code @Async} executor. With the read model enabled, the counts are
+     * taken from memory right away and may lag behind the database by one refresh interval.
+     *
+     * @return a future of a ResponseEntity containing the number of items for every status in use with an HTTP
+     *         status of OK
+     */
+    @GetMapping("/status-counts")
+    public CompletableFuture<ResponseEntity<List<StatusCount>>> countItemsByStatus() {
+        CompletableFuture<List<StatusCount>> counts = itemReadModel != null
+                ? CompletableFuture.completedFuture(itemReadModel.countByStatus())
+                : itemService.countByStatusAsync();
+        return counts.thenApply(result -> new ResponseEntity<>(result, HttpStatus.OK));
+    }
+
+    /**
+     * Searches the names and descriptions of the items for all words of the query, on the {@code @Async}
+     * executor. Hits are ranked by relevance and paginated by offset; ranked results cannot be paged by key,
+     * so the offset is capped at {@value #MAX_SEARCH_OFFSET}.
+     *
+     * @param q      the words to search for; case and accents are ignored
+     * @param offset the number of hits to skip, between 0 and {@value #MAX_SEARCH_OFFSET}
+     * @param limit  the maximum number of hits on the page, between 1 and {@value #MAX_PAGE_SIZE}
+     * @return a future of a ResponseEntity containing the page of hits and the offset of the next page with an
+     *         HTTP status of OK, or an HTTP status of BAD_REQUEST if the query is blank or a bound is out of range
+     */
+    @GetMapping("/search")
+    public CompletableFuture<ResponseEntity<SearchPage>> searchItems(@RequestParam String q,
+                                                                     @RequestParam(defaultValue = "0") int offset,
+                                                                     @RequestParam(defaultValue = "20") int limit) {
+        if (q.isBlank() || offset < 0 || offset > MAX_SEARCH_OFFSET || limit < 1 || limit > MAX_PAGE_SIZE) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        }
+        return itemSearchService.searchAsync(q, offset, limit)
+                .thenApply(page -> new ResponseEntity<>(page, HttpStatus.OK));
+    }
+
+    /**
+     * Rebuilds the search index from all items, e.g. for items that existed before the index did.
+     * Writes keep being indexed while the job runs.
+     *
+     * @return a future of a ResponseEntity containing the number of indexed items with an HTTP status of OK
+     */
+    @Expensive
+    @PostMapping("/search/reindex")
+    public CompletableFuture<ResponseEntity<ReindexResult>> reindexItems() {
+        return itemSearchService.reindexAsync()
+                .thenApply(result -> new ResponseEntity<>(result, HttpStatus.OK));
+    }
+
+    /**
+     * Streams all items as newline-delimited JSON, one item per line. The items are written while they are
+     * read from the database, so memory use stays flat regardless of the size of the table.
+     *
+     * @return a ResponseEntity containing the streaming body with an HTTP status of OK
+     */
+    @Expensive
+    @GetMapping(value = "/stream", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllItems() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+                generator.setRootValueSeparator(null);
+                itemService.streamAll(item -> {
+                    try {
+                        ItemJsonSerializer.write(item, generator);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON_VALUE)).body(body);
+    }
+
     /**
      * Creates a new item and saves it to the database.
      *
@@ -52,38 +250,91 @@ public class ItemController {
     }
 
     /**
-     * Retrieves an item by its unique identifier.
+     * Retrieves an item by its unique identifier, from the read model if it is enabled or through the item cache
+     * otherwise. The response carries the version of the item as its ETag,
+     * which can be sent back in If-Match to make an update conditional, or in If-None-Match to skip
+     * the body if the item has not changed.
      *
-     * @param id the unique identifier of the item to be retrieved
-     * @return a ResponseEntity containing the retrieved Item object with an HTTP status of OK
-     *         if the item is found, or an HTTP status of NOT_FOUND if the item does not exist
+     * @param id      the unique identifier of the item to be retrieved
+     * @param request the current request, used to evaluate If-None-Match
+     * @return a ResponseEntity containing the Item object with an HTTP status of OK if found,
+     *         an HTTP status of NOT_MODIFIED if the client's copy is current,
+     *         or an HTTP status of NOT_FOUND if the item does not exist
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Item> getItemById(@PathVariable Long id) {
-        return itemService.findById(id)
-                .map(item -> new ResponseEntity<>(item, HttpStatus.OK))
-                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    public ResponseEntity<Item> getItemById(@PathVariable Long id, WebRequest request) {
+        Optional<Item> item = itemReadModel != null ? itemReadModel.findById(id) : itemService.findById(id);
+        if (item.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        String eTag = eTag(item.get());
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(item.get());
     }
 
     /**
      * Updates an existing item with the provided details.
      * If the item with the specified ID exists, it updates the item and returns the updated item.
      * If the item does not exist, it returns a NOT_FOUND status.
+     * <p>
+     * The update is conditional if the request carries an If-Match header with the ETag of the item,
+     * or an item version in its body. If the item has been changed since, it is not updated and
+     * PRECONDITION_FAILED (for If-Match) or CONFLICT (for a body version) is returned instead.
+     * Without either, the update overwrites the current state but still fails with CONFLICT if
+     * another write happens at the same time.
      *
-     * @param id   the unique identifier of the item to be updated
-     * @param item the Item object containing the updated details
+     * @param id      the unique identifier of the item to be updated
+     * @param item    the Item object containing the updated details
+     * @param ifMatch the ETag the update is based on, if any
      * @return a ResponseEntity containing the updated Item object with an HTTP status of OK
-     *         if the update is successful, or an HTTP status of NOT_FOUND if the item does not exist
+     *         if the update is successful, an HTTP status of NOT_FOUND if the item does not exist,
+     *         or an HTTP status of PRECONDITION_FAILED or CONFLICT if the item was changed in the meantime
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Item> updateItem(@PathVariable Long id, @RequestBody Item item) {
-        Optional<Item> existingItem = itemService.findById(id);
-        if (existingItem.isPresent()) {
-            item.setId(id);
-            return new ResponseEntity<>(itemService.save(item), HttpStatus.OK);
+    public ResponseEntity<Item> updateItem(@PathVariable Long id, @RequestBody Item item,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion;
+        if (ifMatch == null) {
+            expectedVersion = item.getVersion();
+        } else if (ifMatch.trim().equals("*")) {
+            expectedVersion = null;
         } else {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            expectedVersion = parseETag(ifMatch);
+            if (expectedVersion == null) {
+                return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+            }
+        }
+        item.setId(id);
+        try {
+            return itemService.update(item, expectedVersion)
+                    .map(updated -> ResponseEntity.ok().eTag(eTag(updated)).body(updated))
+                    .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT);
+        }
+    }
+
+    /**
+     * Changes only the status of an existing item. Unlike a full update, the item is not read first:
+     * the change is a single UPDATE statement.
+     *
+     * @param id     the unique identifier of the item to be updated
+     * @param update the new status, validated using the @Valid annotation
+     * @param result the BindingResult object containing validation errors, if any
+     * @return a ResponseEntity with an HTTP status of NO_CONTENT if the item was updated,
+     *         or an HTTP status of NOT_FOUND if the item does not exist
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> updateItemStatus(@PathVariable Long id, @Valid @RequestBody ItemStatusUpdate update,
+                                                 BindingResult result) {
+        if (result.hasErrors()) {
+            throw new ItemInsertionException(result);
         }
+        return itemService.updateStatus(id, update.status())
+                ? new ResponseEntity<>(HttpStatus.NO_CONTENT)
+                : new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
     /**
@@ -99,14 +350,25 @@ public class ItemController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    private static String eTag(Item item) {
+        return "\"" + item.getVersion() + "\"";
+    }
+
     /**
-     * Asynchronously processes a list of items by invoking the corresponding service method.
-     * Returns a response indicating that the processing has been accepted.
+     * Extracts the item version from an If-Match header.
      *
-     * @return a ResponseEntity containing a list of processed items and the HTTP status ACCEPTED
+     * @param ifMatch a strong ETag; weak ETags never match an If-Match condition
+     * @return the version, or null if the header is not an ETag issued by this controller
      */
-    @GetMapping("/process")
-    public ResponseEntity<List<Item>> processItems() {
-        return new ResponseEntity<>(itemService.processItemsAsync(), HttpStatus.ACCEPTED);
+    private static Long parseETag(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 }
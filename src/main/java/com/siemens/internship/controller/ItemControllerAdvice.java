@@ -1,9 +1,14 @@
 package com.siemens.internship.controller;
 
 import com.siemens.internship.exception.ItemInsertionException;
+import com.siemens.internship.exception.ProcessingBusyException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestControllerAdvice
 public class ItemControllerAdvice {
@@ -11,4 +16,24 @@ public class ItemControllerAdvice {
     public ResponseEntity<String> handleItemInsertionException(ItemInsertionException e) {
         return ResponseEntity.badRequest().body(e.getErrorMessage());
     }
+
+    @ExceptionHandler(ProcessingBusyException.class)
+    public ResponseEntity<String> handleProcessingBusyException(ProcessingBusyException e) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()));
+        if (e.getActiveJobId() != null) {
+            response.location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/api/items/process/jobs/{id}")
+                    .buildAndExpand(e.getActiveJobId())
+                    .toUri());
+        }
+        return response.body(e.getMessage());
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<String> handleTaskRejectedException(TaskRejectedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many requests in progress, try again later");
+    }
 }
@@ -0,0 +1,162 @@
+package com.siemens.internship.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siemens.internship.model.DeadLetter;
+import com.siemens.internship.model.ItemPage;
+import com.siemens.internship.model.ProcessingEvent;
+import com.siemens.internship.model.ProcessingJob;
+import com.siemens.internship.service.ProcessingJobService;
+import com.siemens.internship.service.ProcessingRunGuard;
+import com.siemens.internship.service.ProcessingStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The ProcessingJobController class is a REST controller that starts item processing runs
+ * in the background and lets clients poll or cancel them, or follow a run as a stream of progress events.
+ */
+@RestController
+@RequestMapping("/api/items/process")
+public class ProcessingJobController {
+
+    @Autowired
+    private ProcessingJobService processingJobService;
+
+    @Autowired
+    private ProcessingStreamService processingStreamService;
+
+    @Autowired
+    private ProcessingRunGuard processingRunGuard;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Starts a new processing run without waiting for it to finish. Unless a full run is requested, the run
+     * only processes the items created or updated since the last completed run.
+     *
+     * @param full whether to process all items instead of only the changed ones
+     * @return a ResponseEntity containing the queued job with an HTTP status of ACCEPTED
+     *         and a Location header pointing to the job status resource, or an HTTP status of
+     *         TOO_MANY_REQUESTS pointing to the active job if another run is in progress
+     */
+    @Expensive
+    @PostMapping
+    public ResponseEntity<ProcessingJob> startProcessing(@RequestParam(defaultValue = "false") boolean full) {
+        ProcessingJob job = processingJobService.startJob(full);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/jobs/{id}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    /**
+     * Runs processing while streaming a progress event per chunk as newline-delimited JSON, followed by a
+     * {@code completed} event. A slow reader throttles processing rather than making events pile up.
+     *
+     * @return a ResponseEntity containing the streaming body with an HTTP status of OK,
+     *         or an HTTP status of TOO_MANY_REQUESTS if another run is in progress
+     */
+    @Expensive
+    @PostMapping(value = "/stream", produces = ItemController.NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProcessingNdjson() {
+        return streamProcessing(MediaType.parseMediaType(ItemController.NDJSON_VALUE), (outputStream, event) -> {
+            outputStream.write(objectMapper.writeValueAsBytes(event));
+            outputStream.write('\n');
+        });
+    }
+
+    /**
+     * Runs processing while streaming a progress event per chunk as Server-Sent Events, named after the
+     * event type, followed by a {@code completed} event.
+     *
+     * @return a ResponseEntity containing the streaming body with an HTTP status of OK,
+     *         or an HTTP status of TOO_MANY_REQUESTS if another run is in progress
+     */
+    @Expensive
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProcessingEvents() {
+        return streamProcessing(MediaType.TEXT_EVENT_STREAM, (outputStream, event) -> {
+            outputStream.write(("event: " + event.type() + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+            outputStream.write(objectMapper.writeValueAsBytes(event));
+            outputStream.write("\n\n".getBytes(StandardCharsets.UTF_8));
+        });
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamProcessing(MediaType mediaType, EventWriter writer) {
+        // Reject before the response is committed; the run itself checks again under the guard's lock
+        processingRunGuard.ensureIdle();
+        StreamingResponseBody body = outputStream -> processingStreamService.streamRun(event -> {
+            writer.write(outputStream, event);
+            outputStream.flush();
+        });
+        return ResponseEntity.ok().contentType(mediaType).body(body);
+    }
+
+    @FunctionalInterface
+    private interface EventWriter {
+        void write(OutputStream outputStream, ProcessingEvent event) throws IOException;
+    }
+
+    /**
+     * Retrieves the progress of a processing run.
+     *
+     * @param id the unique identifier of the job
+     * @return a ResponseEntity containing the job with an HTTP status of OK
+     *         if the job is found, or an HTTP status of NOT_FOUND if it does not exist
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ProcessingJob> getJob(@PathVariable Long id) {
+        return processingJobService.findById(id)
+                .map(job -> new ResponseEntity<>(job, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Retrieves the items a processing run gave up on after retrying them, with the stage they failed in
+     * and the cause, keyset-paginated by dead letter ID.
+     *
+     * @param id    the unique identifier of the job
+     * @param after the ID of the last dead letter of the previous page, omitted for the first page
+     * @param limit the maximum number of dead letters on the page, between 1 and {@value ItemController#MAX_PAGE_SIZE}
+     * @return a ResponseEntity containing the page of dead letters with an HTTP status of OK,
+     *         an HTTP status of BAD_REQUEST if the limit is out of range, or an HTTP status of NOT_FOUND
+     *         if the job does not exist
+     */
+    @GetMapping("/jobs/{id}/dead-letters")
+    public ResponseEntity<ItemPage<DeadLetter>> getDeadLetters(@PathVariable Long id,
+                                                              @RequestParam(required = false) Long after,
+                                                              @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > ItemController.MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return processingJobService.findDeadLetters(id, after, limit)
+                .map(page -> new ResponseEntity<>(page, HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Requests the cancellation of a processing run. The run stops after its current chunk.
+     *
+     * @param id the unique identifier of the job
+     * @return a ResponseEntity containing the job with an HTTP status of ACCEPTED
+     *         if the job is found, or an HTTP status of NOT_FOUND if it does not exist
+     */
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<ProcessingJob> cancelJob(@PathVariable Long id) {
+        return processingJobService.cancel(id)
+                .map(job -> new ResponseEntity<>(job, HttpStatus.ACCEPTED))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+}
@@ -0,0 +1,35 @@
+package com.siemens.internship.controller;
+
+/**
+ * A token bucket that holds up to {@code capacity} tokens and regains them at a fixed rate.
+ * Taking a token never blocks; when the bucket is empty the caller learns how long to wait instead.
+ */
+final class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(int capacity, double tokensPerSecond, long now) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1e9;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * Takes one token if there is one.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next token is available
+     */
+    synchronized long tryTake(long now) {
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+}
@@ -0,0 +1,12 @@
+package com.siemens.internship.exception;
+
+/**
+ * Thrown by an {@link com.siemens.internship.service.ItemProcessor} for an item that can never be processed,
+ * e.g. because it is invalid. Unlike other failures it is not retried: the item goes to the dead letters
+ * right away.
+ */
+public class ItemRejectedException extends RuntimeException {
+    public ItemRejectedException(String message) {
+        super(message);
+    }
+}
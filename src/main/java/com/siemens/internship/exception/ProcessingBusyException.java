@@ -0,0 +1,18 @@
+package com.siemens.internship.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a processing run is requested while another one is still in progress.
+ */
+@Getter
+public class ProcessingBusyException extends RuntimeException {
+    private final Long activeJobId;
+    private final long retryAfterSeconds;
+
+    public ProcessingBusyException(String message, Long activeJobId, long retryAfterSeconds) {
+        super(message);
+        this.activeJobId = activeJobId;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,24 @@
+package com.siemens.internship.model;
+
+/**
+ * Outcome of a single item in a bulk request.
+ *
+ * @param index  the position of the item in the request
+ * @param id     the ID of the item, if known
+ * @param status the HTTP status code describing the outcome for this item
+ * @param error  the reason of the failure, or null if the item succeeded
+ */
+public record BulkItemResult(int index, Long id, int status, String error) {
+
+    public static BulkItemResult success(int index, Long id, int status) {
+        return new BulkItemResult(index, id, status, null);
+    }
+
+    public static BulkItemResult failure(int index, Long id, int status, String error) {
+        return new BulkItemResult(index, id, status, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.siemens.internship.model;
+
+import java.util.List;
+
+/**
+ * Result of a bulk request, with one entry per item in request order.
+ *
+ * @param succeeded the number of items that were written
+ * @param failed    the number of items that were rejected or could not be written
+ * @param results   the outcome of every item
+ */
+public record BulkResponse(int succeeded, int failed, List<BulkItemResult> results) {
+
+    public static BulkResponse of(List<BulkItemResult> results) {
+        int succeeded = (int) results.stream().filter(BulkItemResult::isSuccess).count();
+        return new BulkResponse(succeeded, results.size() - succeeded, results);
+    }
+}
@@ -0,0 +1,15 @@
+package com.siemens.internship.model;
+
+/**
+ * Snapshot of the statistics of one cache, used to size it.
+ *
+ * @param name          the name of the cache
+ * @param size          the approximate number of entries currently cached
+ * @param hitCount      the number of lookups that found a cached entry
+ * @param missCount     the number of lookups that did not find a cached entry
+ * @param hitRate       the ratio of hits to lookups, between 0 and 1
+ * @param evictionCount the number of entries removed because of the size or expiry limits
+ */
+public record CacheStatistics(String name, long size, long hitCount, long missCount, double hitRate,
+                              long evictionCount) {
+}
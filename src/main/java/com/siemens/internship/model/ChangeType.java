@@ -0,0 +1,22 @@
+package com.siemens.internship.model;
+
+import java.util.Set;
+
+/**
+ * Kinds of {@link ItemChange item changes}.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    /**
+     * An update that left the item processed, whether by a processing run or by a client.
+     */
+    PROCESSED,
+    DELETED;
+
+    /**
+     * The changes that make an item due for processing again. Processing records its own writes as
+     * {@link #PROCESSED}, so an incremental run never picks up the items the previous run wrote.
+     */
+    public static final Set<ChangeType> PROCESSABLE = Set.of(CREATED, UPDATED);
+}
@@ -0,0 +1,10 @@
+package com.siemens.internship.model;
+
+/**
+ * A range of the item change log, as covered by an incremental processing run.
+ *
+ * @param since the sequence number of the last change covered by the previous run, exclusive
+ * @param until the sequence number of the last change covered by this run, inclusive
+ */
+public record ChangeWindow(long since, long until) {
+}
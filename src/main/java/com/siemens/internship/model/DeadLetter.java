@@ -0,0 +1,50 @@
+package com.siemens.internship.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * An item that a processing run gave up on after retrying it, with the stage it failed in and why.
+ * The item itself is left unchanged, so it can be processed again once the cause is fixed.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_dead_letter_job", columnList = "jobId, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class DeadLetter {
+    public static final int MAX_CAUSE_LENGTH = 1000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    /**
+     * The job the item failed in, or null for a streamed run.
+     */
+    private Long jobId;
+    private Long itemId;
+    @Column(length = 64)
+    private String stage;
+    @Column(length = MAX_CAUSE_LENGTH)
+    private String cause;
+    private Instant failedAt = Instant.now();
+
+    public DeadLetter(Long jobId, Long itemId, String stage, Throwable cause) {
+        this.jobId = jobId;
+        this.itemId = itemId;
+        this.stage = stage;
+        String message = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+        this.cause = message.length() > MAX_CAUSE_LENGTH ? message.substring(0, MAX_CAUSE_LENGTH) : message;
+    }
+}
@@ -1,23 +1,33 @@
 package com.siemens.internship.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Pattern;
 import lombok.*;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_item_status_id", columnList = "status, id"),
+        @Index(name = "idx_item_email", columnList = "email"),
+        @Index(name = "idx_item_name", columnList = "name")
+})
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 @EqualsAndHashCode
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 100)
     private Long id;
     private String name;
     private String description;
@@ -25,5 +35,21 @@ public class Item {
 
     @Email
     private String email;
+
+    /**
+     * Incremented on every write and checked by Hibernate on update, so a write based on a stale copy fails
+     * instead of silently overwriting a concurrent one. Null until the item has been persisted.
+     */
+    @Version
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
+    public Item(Long id, String name, String description, String status, String email) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.status = status;
+        this.email = email;
+    }
 }
 
@@ -0,0 +1,45 @@
+package com.siemens.internship.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * An entry of the append-only item change log. Entries are written by {@code ItemService} in the transaction
+ * of the change they record, so the log never misses a committed write nor contains a rolled back one.
+ * <p>
+ * The sequence number grows with every entry, but concurrent transactions may commit out of sequence order;
+ * readers therefore only look at entries older than {@code item.changes.settle-time}, see
+ * {@code ItemChangeService}.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_item_change_item", columnList = "itemId, seq"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ItemChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Column(nullable = false)
+    private Long itemId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private ChangeType type;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+}
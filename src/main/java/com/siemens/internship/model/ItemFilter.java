@@ -0,0 +1,12 @@
+package com.siemens.internship.model;
+
+/**
+ * Criteria of an item query. Null criteria are not applied.
+ *
+ * @param status        only items with exactly this status
+ * @param excludeStatus only items with any other status, including none
+ * @param email         only items with exactly this email
+ * @param namePrefix    only items whose name starts with this prefix
+ */
+public record ItemFilter(String status, String excludeStatus, String email, String namePrefix) {
+}
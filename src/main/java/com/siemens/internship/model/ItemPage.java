@@ -0,0 +1,28 @@
+package com.siemens.internship.model;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated item listing.
+ *
+ * @param items      the items of the page, ordered by ID
+ * @param nextCursor the value to pass as {@code after} to fetch the next page, or null if this is the last page
+ * @param <T>        the representation of the items, either the entity or a projection
+ */
+public record ItemPage<T>(List<T> items, Long nextCursor) {
+
+    /**
+     * Creates a page from the result of a query limited to {@code limit} rows. A full page may be followed by
+     * more rows, so its last ID becomes the cursor; a shorter page is the last one.
+     *
+     * @param items the items returned by the query, ordered by ID
+     * @param limit the limit the query was run with
+     * @param id    extracts the ID of an item
+     * @return the page
+     */
+    public static <T> ItemPage<T> of(List<T> items, int limit, Function<T, Long> id) {
+        Long nextCursor = items.size() < limit ? null : id.apply(items.get(items.size() - 1));
+        return new ItemPage<>(items, nextCursor);
+    }
+}
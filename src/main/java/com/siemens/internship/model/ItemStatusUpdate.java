@@ -0,0 +1,11 @@
+package com.siemens.internship.model;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * Body of a partial update that only changes the status of an item.
+ *
+ * @param status the new status
+ */
+public record ItemStatusUpdate(@NotBlank String status) {
+}
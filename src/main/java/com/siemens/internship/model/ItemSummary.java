@@ -0,0 +1,13 @@
+package com.siemens.internship.model;
+
+/**
+ * Lightweight read-only projection of an item for list queries. It leaves out the description and
+ * is selected directly as columns, so no entity is hydrated or tracked by the persistence context.
+ *
+ * @param id     the unique identifier of the item
+ * @param name   the name of the item
+ * @param status the status of the item
+ * @param email  the email of the item
+ */
+public record ItemSummary(Long id, String name, String status, String email) {
+}
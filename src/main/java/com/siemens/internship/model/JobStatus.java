@@ -0,0 +1,19 @@
+package com.siemens.internship.model;
+
+/**
+ * Lifecycle states of a {@link ProcessingJob}.
+ */
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED;
+
+    /**
+     * @return whether the job has reached a final state and will not change anymore
+     */
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,17 @@
+package com.siemens.internship.model;
+
+/**
+ * Progress event of a streamed processing run.
+ *
+ * @param type      {@code chunk} for a committed chunk, {@code failed} for a rolled back chunk,
+ *                  or {@code completed} for the final event of the run
+ * @param firstId   the first ID of the chunk, null for the final event
+ * @param lastId    the last ID of the chunk, null for the final event
+ * @param processed the items processed in the chunk, or in the whole run for the final event
+ * @param failed    the items failed in the chunk, or in the whole run for the final event
+ */
+public record ProcessingEvent(String type, Long firstId, Long lastId, long processed, long failed) {
+    public static final String CHUNK = "chunk";
+    public static final String FAILED = "failed";
+    public static final String COMPLETED = "completed";
+}
@@ -0,0 +1,99 @@
+package com.siemens.internship.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A single item processing run, split into {@link ProcessingLease partitions} that any node may work on.
+ * A run either covers all items or, incrementally, only those changed since the last completed run.
+ * Its progress counters are advanced as partitions complete, so any caller can poll the state of the run
+ * without holding a request open for its length.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProcessingJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private JobStatus status = JobStatus.QUEUED;
+
+    private long queued;
+    private long processed;
+    private long failed;
+
+    private Instant createdAt = Instant.now();
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+
+    /**
+     * Set once a cancellation was requested, so that every node working on the job stops claiming its partitions.
+     */
+    private boolean cancelRequested;
+
+    /**
+     * The sequence number of the last item change the previous run covered, or null for a run over all items.
+     * An incremental run only processes the items created or updated after it.
+     */
+    private Long sinceChange;
+
+    /**
+     * The sequence number of the last item change this run covers; the next incremental run starts after it.
+     */
+    private Long untilChange;
+
+    /**
+     * @return whether the run only processes the items changed since the previous one
+     */
+    public boolean isIncremental() {
+        return sinceChange != null;
+    }
+
+    /**
+     * @return the range of the change log an incremental run covers, or null for a run over all items
+     */
+    public ChangeWindow changeWindow() {
+        return sinceChange != null ? new ChangeWindow(sinceChange, untilChange) : null;
+    }
+
+    /**
+     * @return the average number of items processed per second since the job started
+     */
+    public double getThroughput() {
+        if (startedAt == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long millis = Duration.between(startedAt, end).toMillis();
+        return millis == 0 ? 0 : processed * 1000d / millis;
+    }
+
+    /**
+     * @return the estimated number of seconds until the job finishes, or null if it cannot be estimated yet
+     */
+    public Long getEtaSeconds() {
+        if (status.isFinished()) {
+            return 0L;
+        }
+        double throughput = getThroughput();
+        if (throughput == 0) {
+            return null;
+        }
+        long remaining = Math.max(0, queued - processed - failed);
+        return (long) Math.ceil(remaining / throughput);
+    }
+}
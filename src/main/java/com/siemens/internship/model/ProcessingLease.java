@@ -0,0 +1,50 @@
+package com.siemens.internship.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A partition of a {@link ProcessingJob}: the items with IDs from {@code firstId} to {@code lastId}.
+ * A node works on a partition only while it holds its lease, i.e. while it is the {@code owner} and
+ * {@code expiresAt} lies in the future. An expired lease can be claimed by any other node.
+ * <p>
+ * While working on a partition, a node records a checkpoint: the ID up to which every item is done, together
+ * with the counters of those items. A node that claims the partition later resumes after the checkpoint.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_lease_job_done", columnList = "jobId, done"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProcessingLease {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    private Long jobId;
+    private long firstId;
+    private long lastId;
+
+    private String owner;
+    private Instant expiresAt;
+    private boolean done;
+
+    private Long checkpointId;
+    private long processed;
+    private long failed;
+
+    public ProcessingLease(Long jobId, long firstId, long lastId) {
+        this.jobId = jobId;
+        this.firstId = firstId;
+        this.lastId = lastId;
+    }
+}
@@ -0,0 +1,22 @@
+package com.siemens.internship.model;
+
+/**
+ * Memory use of the in-memory item read model, next to an estimate for the entity cache holding the same items.
+ *
+ * @param loaded                  whether the initial load has finished; until then lookups go to the database
+ * @param items                   the number of items held
+ * @param statuses                the number of distinct statuses in the status dictionary
+ * @param heapBytes               the bytes of the primitive arrays and the ID map on the heap
+ * @param offHeapBytes            the bytes of the off-heap segments allocated for the text fields
+ * @param offHeapUsedBytes        the part of the segments holding text fields, including space of replaced
+ *                                values not yet reclaimed by compaction
+ * @param bytesPerItem            the heap and used off-heap bytes per item
+ * @param changeSeq               the change log sequence number up to which all changes are applied
+ * @param entityCacheSize         the number of items in the entity cache
+ * @param entityCacheBytesPerItem the estimated heap bytes per cached item entity, including the cache entry,
+ *                                or 0 if the entity cache is empty
+ */
+public record ReadModelStatistics(boolean loaded, long items, int statuses, long heapBytes, long offHeapBytes,
+                                  long offHeapUsedBytes, double bytesPerItem, long changeSeq, long entityCacheSize,
+                                  double entityCacheBytesPerItem) {
+}
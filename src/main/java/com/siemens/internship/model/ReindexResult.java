@@ -0,0 +1,9 @@
+package com.siemens.internship.model;
+
+/**
+ * Outcome of rebuilding the item search index.
+ *
+ * @param indexed the number of items that were indexed
+ */
+public record ReindexResult(long indexed) {
+}
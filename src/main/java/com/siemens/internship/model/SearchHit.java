@@ -0,0 +1,13 @@
+package com.siemens.internship.model;
+
+/**
+ * An item matching a full-text search, with the score it is ranked by.
+ *
+ * @param id          the unique identifier of the item
+ * @param name        the name of the item
+ * @param description the description of the item
+ * @param status      the status of the item
+ * @param score       how well the item matches the search terms; higher is better
+ */
+public record SearchHit(Long id, String name, String description, String status, double score) {
+}
@@ -0,0 +1,13 @@
+package com.siemens.internship.model;
+
+import java.util.List;
+
+/**
+ * One page of full-text search results. Results are ranked by score rather than ordered by ID, so pages are
+ * addressed by offset.
+ *
+ * @param hits       the matching items, best match first
+ * @param nextOffset the value to pass as {@code offset} to fetch the next page, or null if this is the last page
+ */
+public record SearchPage(List<SearchHit> hits, Integer nextOffset) {
+}
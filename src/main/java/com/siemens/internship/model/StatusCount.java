@@ -0,0 +1,10 @@
+package com.siemens.internship.model;
+
+/**
+ * Number of items having a given status.
+ *
+ * @param status the status, or null for items without one
+ * @param count  the number of items with that status
+ */
+public record StatusCount(String status, long count) {
+}
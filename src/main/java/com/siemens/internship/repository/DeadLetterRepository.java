@@ -0,0 +1,19 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.DeadLetter;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface DeadLetterRepository extends JpaRepository<DeadLetter, Long> {
+    /**
+     * Retrieves one page of the dead letters of a job, keyset-paginated by ID.
+     *
+     * @param jobId the ID of the job
+     * @param after the ID after which the page starts
+     * @param limit the maximum number of dead letters
+     * @return the dead letters, ordered by ID
+     */
+    List<DeadLetter> findByJobIdAndIdGreaterThanOrderById(Long jobId, long after, Limit limit);
+}
@@ -0,0 +1,114 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.ChangeType;
+import com.siemens.internship.model.ItemChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ItemChangeRepository extends JpaRepository<ItemChange, Long> {
+    /**
+     * Appends a change entry for each of the given items that exists, with a single INSERT ... SELECT.
+     * Pending writes are flushed first, so that items inserted in the same transaction are found. Entries are
+     * stamped with the clock of the database at the start of the transaction, so that the stamps written by
+     * different nodes are comparable whatever their own clocks say.
+     *
+     * @param ids  the IDs of the changed items
+     * @param type the name of the {@link ChangeType}
+     * @return the number of entries written
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO item_change (item_id, type, changed_at) "
+            + "SELECT id, :type, CURRENT_TIMESTAMP FROM item WHERE id IN (:ids)", nativeQuery = true)
+    int record(Collection<Long> ids, String type);
+
+    /**
+     * Finds the newest change made at least the given time ago, by the clock of the database. The log is read
+     * backwards from its newest entry, so only the few younger changes are skipped.
+     *
+     * @param ageMillis the minimum age of the change in milliseconds
+     * @return the sequence number of the change, or an empty Optional if there is none that old
+     */
+    @Query(value = "SELECT seq FROM item_change WHERE changed_at <= DATEADD(MILLISECOND, -:ageMillis, CURRENT_TIMESTAMP) "
+            + "ORDER BY seq DESC FETCH FIRST 1 ROWS ONLY", nativeQuery = true)
+    Optional<Long> findNewestSeqOlderThan(long ageMillis);
+
+    /**
+     * Finds the newest change made at or before the given time. The log is read backwards from its newest
+     * entry, so only the few younger changes are skipped.
+     *
+     * @param changedAt the time the change has to be older than or equal to
+     * @return the change, or an empty Optional if there is none that old
+     */
+    Optional<ItemChange> findFirstByChangedAtLessThanEqualOrderBySeqDesc(Instant changedAt);
+
+    /**
+     * Deletes the entries before the given one, with a single statement.
+     *
+     * @param seq the sequence number of the oldest entry to keep
+     * @return the number of deleted entries
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ItemChange c WHERE c.seq < :seq")
+    int deleteBySeqLessThan(long seq);
+
+    /**
+     * Retrieves one page of the change log, keyset-paginated by sequence number.
+     *
+     * @param since the sequence number after which the page starts
+     * @param until the sequence number of the last change that may be returned
+     * @param limit the maximum number of changes
+     * @return the changes, ordered by sequence number
+     */
+    List<ItemChange> findBySeqGreaterThanAndSeqLessThanEqualOrderBySeq(long since, long until, Limit limit);
+
+    /**
+     * Streams the IDs of the items changed in a range of the log, once each and in ascending order.
+     *
+     * @param since the sequence number after which the range starts
+     * @param until the sequence number at which the range ends
+     * @param types the kinds of changes to consider
+     * @return the item IDs, to be closed after use
+     */
+    @Query("SELECT DISTINCT c.itemId FROM ItemChange c WHERE c.seq > :since AND c.seq <= :until "
+            + "AND c.type IN :types ORDER BY c.itemId")
+    Stream<Long> streamChangedItemIds(long since, long until, Collection<ChangeType> types);
+
+    /**
+     * Counts the items changed in a range of the log.
+     *
+     * @param since the sequence number after which the range starts
+     * @param until the sequence number at which the range ends
+     * @param types the kinds of changes to consider
+     * @return the number of distinct items
+     */
+    @Query("SELECT COUNT(DISTINCT c.itemId) FROM ItemChange c WHERE c.seq > :since AND c.seq <= :until "
+            + "AND c.type IN :types")
+    long countChangedItems(long since, long until, Collection<ChangeType> types);
+
+    /**
+     * Retrieves the next chunk of IDs of the items changed in a range of the log, within an ID range.
+     * Backed by the (item_id, seq) index, so a chunk only reads the entries of the items in it.
+     *
+     * @param since the sequence number after which the range of the log starts
+     * @param until the sequence number at which the range of the log ends
+     * @param types the kinds of changes to consider
+     * @param after the item ID after which the chunk starts
+     * @param last  the last item ID that may be returned
+     * @param limit the maximum number of IDs
+     * @return the item IDs, ascending and without duplicates
+     */
+    @Query("SELECT DISTINCT c.itemId FROM ItemChange c WHERE c.itemId > :after AND c.itemId <= :last "
+            + "AND c.seq > :since AND c.seq <= :until AND c.type IN :types ORDER BY c.itemId")
+    List<Long> findChangedItemIdsInRange(long since, long until, Collection<ChangeType> types,
+                                         long after, long last, Limit limit);
+}
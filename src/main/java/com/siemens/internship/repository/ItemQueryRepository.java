@@ -0,0 +1,23 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.ItemFilter;
+import com.siemens.internship.model.ItemSummary;
+
+import java.util.List;
+
+/**
+ * Filtered item queries whose WHERE clause depends on which criteria are present.
+ */
+public interface ItemQueryRepository {
+
+    /**
+     * Retrieves the summaries of the items matching the filter, keyset-paginated by ID.
+     * Only the criteria that are present end up in the query, so each of them can be served by its index.
+     *
+     * @param filter the criteria to be applied
+     * @param after  the last ID of the previous page
+     * @param limit  the maximum number of summaries to return
+     * @return the ordered list of matching summaries following {@code after}
+     */
+    List<ItemSummary> findSummaries(ItemFilter filter, long after, int limit);
+}
@@ -0,0 +1,59 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemFilter;
+import com.siemens.internship.model.ItemSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria API implementation of {@link ItemQueryRepository}, picked up by Spring Data as a fragment
+ * of {@link ItemRepository}.
+ */
+public class ItemQueryRepositoryImpl implements ItemQueryRepository {
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ItemSummary> findSummaries(ItemFilter filter, long after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ItemSummary> query = cb.createQuery(ItemSummary.class);
+        Root<Item> item = query.from(Item.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.greaterThan(item.get("id"), after));
+        if (filter.status() != null) {
+            predicates.add(cb.equal(item.get("status"), filter.status()));
+        }
+        if (filter.excludeStatus() != null) {
+            predicates.add(cb.or(cb.isNull(item.get("status")), cb.notEqual(item.get("status"), filter.excludeStatus())));
+        }
+        if (filter.email() != null) {
+            predicates.add(cb.equal(item.get("email"), filter.email()));
+        }
+        if (filter.namePrefix() != null) {
+            predicates.add(cb.like(item.get("name"), escapeLike(filter.namePrefix()) + "%", LIKE_ESCAPE));
+        }
+
+        query.select(cb.construct(ItemSummary.class,
+                        item.get("id"), item.get("name"), item.get("status"), item.get("email")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(item.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -1,12 +1,20 @@
 package com.siemens.internship.repository;
 
 import com.siemens.internship.model.Item;
+import com.siemens.internship.model.StatusCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemQueryRepository, ItemSearchRepository {
     /**
      * Retrieves the list of all item IDs from the Item entity.
      *
@@ -14,4 +22,72 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
      */
     @Query("SELECT id FROM Item")
     List<Long> findAllIds();
+
+    /**
+     * Retrieves the next page of item IDs strictly greater than the given ID, in ascending order.
+     * Paging by key instead of by offset keeps every page an index range scan on the primary key.
+     *
+     * @param after the last ID of the previous page
+     * @param limit the maximum number of IDs to return
+     * @return the ordered list of item IDs following {@code after}
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.id > :after ORDER BY i.id")
+    List<Long> findIdsAfter(long after, Limit limit);
+
+    /**
+     * Retrieves the next page of item IDs strictly greater than {@code after} and at most {@code last},
+     * in ascending order.
+     *
+     * @param after the last ID of the previous page
+     * @param last  the last ID of the range being paged
+     * @param limit the maximum number of IDs to return
+     * @return the ordered list of item IDs following {@code after} within the range
+     */
+    @Query("SELECT i.id FROM Item i WHERE i.id > :after AND i.id <= :last ORDER BY i.id")
+    List<Long> findIdsInRange(long after, long last, Limit limit);
+
+    /**
+     * Counts the items per status. The grouping is served by the status index.
+     *
+     * @return the number of items for every status in use
+     */
+    @Query("SELECT new com.siemens.internship.model.StatusCount(i.status, COUNT(i)) FROM Item i GROUP BY i.status")
+    List<StatusCount> countByStatus();
+
+    /**
+     * Sets the status of all given items with a single statement, without loading them.
+     * The statement increments the version of every updated item, so it conflicts with concurrent
+     * writes based on an older version like any other update.
+     *
+     * @param ids    the IDs of the items to be updated
+     * @param status the new status
+     * @return the number of items that were updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE VERSIONED Item i SET i.status = :status WHERE i.id IN :ids")
+    int updateStatus(Collection<Long> ids, String status);
+
+    /**
+     * Retrieves the next page of items with an ID strictly greater than the given ID, in ascending ID order.
+     *
+     * @param after the last ID of the previous page
+     * @param limit the maximum number of items to return
+     * @return the ordered list of items following {@code after}
+     */
+    @Query("SELECT i FROM Item i WHERE i.id > :after ORDER BY i.id")
+    List<Item> findPageAfter(long after, Limit limit);
+
+    /**
+     * Streams all items in ascending ID order. Rows are fetched from the driver in batches of the fetch size
+     * instead of being materialized all at once, and are loaded read-only so no dirty-checking snapshot is kept.
+     * The stream must be consumed inside a transaction and closed afterwards.
+     *
+     * @return a stream over all items
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Item i ORDER BY i.id")
+    Stream<Item> streamAll();
 }
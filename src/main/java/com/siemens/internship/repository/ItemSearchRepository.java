@@ -0,0 +1,42 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.SearchHit;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the postings of the item search index, the {@code item_term} table. A posting maps a term to
+ * an item together with the weight of the term in that item; postings are deleted along with their item.
+ */
+public interface ItemSearchRepository {
+
+    /**
+     * Replaces the postings of the given items. Pending item writes are flushed first, so that items inserted in
+     * the same transaction can be referenced.
+     *
+     * @param postings the weight of every term, per item ID; an item with no terms ends up without postings
+     */
+    void replaceTerms(Map<Long, Map<String, Integer>> postings);
+
+    /**
+     * Counts the items containing each of the given terms, through the primary key of the postings.
+     *
+     * @param terms the terms to be counted
+     * @return the number of items per term, leaving out terms no item contains
+     */
+    Map<String, Long> countItemsByTerm(Collection<String> terms);
+
+    /**
+     * Retrieves the items containing all of the given terms, ranked by the sum of the logarithmic weight of each
+     * term in the item multiplied by the weight given for the term.
+     *
+     * @param termWeights the terms to be matched, each with the weight of a match, e.g. its inverse document
+     *                    frequency
+     * @param offset      the number of hits to skip
+     * @param limit       the maximum number of hits to return
+     * @return the hits, best match first and by ID among equal scores
+     */
+    List<SearchHit> search(Map<String, Double> termWeights, int offset, int limit);
+}
@@ -0,0 +1,105 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.SearchHit;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Native SQL implementation of {@link ItemSearchRepository}, picked up by Spring Data as a fragment
+ * of {@link ItemRepository}. Postings are inserted as JDBC batches on the connection of the current transaction.
+ */
+public class ItemSearchRepositoryImpl implements ItemSearchRepository {
+    private static final int BATCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void replaceTerms(Map<Long, Map<String, Integer>> postings) {
+        if (postings.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        entityManager.createNativeQuery("DELETE FROM item_term WHERE item_id IN (:ids)")
+                .setParameter("ids", postings.keySet())
+                .executeUpdate();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "INSERT INTO item_term (term, item_id, weight) VALUES (?, ?, ?)")) {
+                int pending = 0;
+                for (Map.Entry<Long, Map<String, Integer>> item : postings.entrySet()) {
+                    for (Map.Entry<String, Integer> term : item.getValue().entrySet()) {
+                        insert.setString(1, term.getKey());
+                        insert.setLong(2, item.getKey());
+                        insert.setInt(3, term.getValue());
+                        insert.addBatch();
+                        if (++pending == BATCH_SIZE) {
+                            insert.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                }
+                if (pending > 0) {
+                    insert.executeBatch();
+                }
+            }
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Long> countItemsByTerm(Collection<String> terms) {
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "SELECT term, COUNT(*) FROM item_term WHERE term IN (:terms) GROUP BY term", Object[].class)
+                .setParameter("terms", terms)
+                .getResultList();
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    @Override
+    public List<SearchHit> search(Map<String, Double> termWeights, int offset, int limit) {
+        // Postings are grouped per item; only items having a posting for every term make it through HAVING,
+        // and only the requested page of them is joined with the items
+        StringBuilder termWeight = new StringBuilder("CASE t.term");
+        for (int i = 0; i < termWeights.size(); i++) {
+            termWeight.append(" WHEN :term").append(i).append(" THEN :weight").append(i);
+        }
+        termWeight.append(" END");
+        String sql = "SELECT i.id, i.name, i.description, i.status, r.score FROM ("
+                + "SELECT t.item_id, SUM(LN(1 + t.weight) * " + termWeight + ") AS score FROM item_term t "
+                + "WHERE t.term IN (:terms) GROUP BY t.item_id HAVING COUNT(*) = :termCount "
+                + "ORDER BY score DESC, t.item_id OFFSET :offset ROWS FETCH NEXT :limit ROWS ONLY) r "
+                + "JOIN item i ON i.id = r.item_id ORDER BY r.score DESC, i.id";
+
+        Query query = entityManager.createNativeQuery(sql, Object[].class)
+                .setParameter("terms", termWeights.keySet())
+                .setParameter("termCount", termWeights.size())
+                .setParameter("offset", offset)
+                .setParameter("limit", limit);
+        int i = 0;
+        for (Map.Entry<String, Double> entry : termWeights.entrySet()) {
+            query.setParameter("term" + i, entry.getKey()).setParameter("weight" + i, entry.getValue());
+            i++;
+        }
+        List<SearchHit> hits = new ArrayList<>();
+        for (Object row : query.getResultList()) {
+            Object[] columns = (Object[]) row;
+            hits.add(new SearchHit(((Number) columns[0]).longValue(), (String) columns[1], (String) columns[2],
+                    (String) columns[3], ((Number) columns[4]).doubleValue()));
+        }
+        return hits;
+    }
+}
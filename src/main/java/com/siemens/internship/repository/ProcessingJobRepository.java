@@ -0,0 +1,98 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.JobStatus;
+import com.siemens.internship.model.ProcessingJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Several nodes update the same job concurrently, so its state is changed with targeted statements
+ * instead of saving the loaded entity, which would overwrite the counters written by the other nodes.
+ */
+public interface ProcessingJobRepository extends JpaRepository<ProcessingJob, Long> {
+    /**
+     * @return the most recent job that is not finished yet, if any
+     */
+    Optional<ProcessingJob> findFirstByFinishedAtIsNullOrderByIdDesc();
+
+    /**
+     * @param status the status of the job, normally {@link JobStatus#COMPLETED}
+     * @return the most recent job with the given status that recorded how far the change log it covered
+     */
+    Optional<ProcessingJob> findFirstByStatusAndUntilChangeIsNotNullOrderByIdDesc(JobStatus status);
+
+    /**
+     * @return the oldest change log entry an unfinished job reads from, which for a full run is the end of its
+     *         range, or null if no unfinished job covers a range of the log
+     */
+    @Query("SELECT MIN(COALESCE(j.sinceChange, j.untilChange)) FROM ProcessingJob j WHERE j.finishedAt IS NULL")
+    Long findOldestChangeOfUnfinishedJobs();
+
+    /**
+     * Locks the single row of the processing run lock until the end of the current transaction, so that nodes
+     * checking for an active run and creating a job take turns.
+     *
+     * @return the ID of the locked row
+     * @throws org.springframework.dao.PessimisticLockingFailureException if another node holds the lock too long
+     */
+    @Query(value = "SELECT id FROM processing_run_lock WHERE id = 1 FOR UPDATE", nativeQuery = true)
+    Integer lockRuns();
+
+    /**
+     * Moves a queued job to running.
+     *
+     * @param id        the ID of the job
+     * @param startedAt the start time to record
+     * @return 1 if the job was queued, 0 if another node started it already
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.status = :running, j.startedAt = :startedAt "
+            + "WHERE j.id = :id AND j.status = :queued")
+    int markStarted(Long id, Instant startedAt, JobStatus queued, JobStatus running);
+
+    /**
+     * Adds the outcome of a partition to the counters of a job.
+     *
+     * @param id        the ID of the job
+     * @param processed the number of items processed in the partition
+     * @param failed    the number of items failed in the partition
+     * @param error     the last error of the partition, or null to keep the current one
+     * @return the number of jobs that were updated
+     */
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.processed = j.processed + :processed, j.failed = j.failed + :failed, "
+            + "j.error = COALESCE(:error, j.error) WHERE j.id = :id")
+    int addProgress(Long id, long processed, long failed, String error);
+
+    /**
+     * Flags an unfinished job for cancellation.
+     *
+     * @param id the ID of the job
+     * @return the number of jobs that were flagged
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.cancelRequested = true WHERE j.id = :id AND j.finishedAt IS NULL")
+    int requestCancel(Long id);
+
+    /**
+     * Finishes a job unless it has been finished already.
+     *
+     * @param id         the ID of the job
+     * @param status     the final status
+     * @param finishedAt the finish time to record
+     * @param error      the error to record, or null to keep the current one
+     * @return 1 if this call finished the job, 0 if it was finished already
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingJob j SET j.status = :status, j.finishedAt = :finishedAt, "
+            + "j.error = COALESCE(:error, j.error) WHERE j.id = :id AND j.finishedAt IS NULL")
+    int finish(Long id, JobStatus status, Instant finishedAt, String error);
+}
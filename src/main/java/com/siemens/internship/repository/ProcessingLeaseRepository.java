@@ -0,0 +1,139 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.ProcessingLease;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Leases are claimed optimistically: a node reads candidate partitions without locking and then claims one
+ * with a conditional UPDATE that only matches while the partition is still free. Exactly one of several nodes
+ * racing for the same partition sees an update count of 1.
+ */
+public interface ProcessingLeaseRepository extends JpaRepository<ProcessingLease, Long> {
+    /**
+     * Retrieves the IDs of partitions of a job that are neither done nor leased, as long as the job is
+     * unfinished and not being cancelled.
+     *
+     * @param jobId the ID of the job
+     * @param now   the current time; leases that expired before it are free again
+     * @param limit the maximum number of IDs to return
+     * @return the IDs of the claimable partitions, in ascending order
+     */
+    @Query("SELECT l.id FROM ProcessingLease l, ProcessingJob j WHERE j.id = l.jobId AND l.jobId = :jobId "
+            + "AND j.finishedAt IS NULL AND j.cancelRequested = false "
+            + "AND l.done = false AND (l.owner IS NULL OR l.expiresAt < :now) ORDER BY l.id")
+    List<Long> findClaimableIds(Long jobId, Instant now, Limit limit);
+
+    /**
+     * Retrieves the IDs of all jobs that have claimable partitions.
+     *
+     * @param now the current time; leases that expired before it are free again
+     * @return the IDs of the jobs another node could help with
+     */
+    @Query("SELECT DISTINCT l.jobId FROM ProcessingLease l, ProcessingJob j WHERE j.id = l.jobId "
+            + "AND j.finishedAt IS NULL AND j.cancelRequested = false "
+            + "AND l.done = false AND (l.owner IS NULL OR l.expiresAt < :now)")
+    List<Long> findClaimableJobIds(Instant now);
+
+    /**
+     * @param jobId the ID of the job
+     * @return whether the job has been split into partitions
+     */
+    boolean existsByJobId(Long jobId);
+
+    /**
+     * Counts the partitions of a job that are not done yet.
+     *
+     * @param jobId the ID of the job
+     * @return the number of pending partitions
+     */
+    long countByJobIdAndDoneFalse(Long jobId);
+
+    /**
+     * Leases a partition to a node, provided it is still free.
+     *
+     * @param id        the ID of the partition
+     * @param owner     the node claiming the partition
+     * @param now       the current time
+     * @param expiresAt the time the lease expires unless renewed
+     * @return 1 if the partition was claimed, 0 if another node was faster
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingLease l SET l.owner = :owner, l.expiresAt = :expiresAt "
+            + "WHERE l.id = :id AND l.done = false AND (l.owner IS NULL OR l.expiresAt < :now)")
+    int claim(Long id, String owner, Instant now, Instant expiresAt);
+
+    /**
+     * Extends every unfinished lease of a node.
+     *
+     * @param owner     the node renewing its leases
+     * @param expiresAt the new expiry time
+     * @return the number of leases renewed
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingLease l SET l.expiresAt = :expiresAt WHERE l.owner = :owner AND l.done = false")
+    int renew(String owner, Instant expiresAt);
+
+    /**
+     * Records how far a partition claimed by the given node has got.
+     *
+     * @param id           the ID of the partition
+     * @param owner        the node expected to hold the lease
+     * @param checkpointId the ID up to which every item of the partition is done
+     * @param processed    the number of items processed since the previous checkpoint
+     * @param failed       the number of items failed since the previous checkpoint
+     * @return 1 if the node still holds the lease, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE ProcessingLease l SET l.checkpointId = :checkpointId, l.processed = l.processed + :processed, "
+            + "l.failed = l.failed + :failed WHERE l.id = :id AND l.owner = :owner AND l.done = false")
+    int checkpoint(Long id, String owner, long checkpointId, long processed, long failed);
+
+    /**
+     * Marks a partition done, provided the node still holds it.
+     *
+     * @param id        the ID of the partition
+     * @param owner     the node that processed the partition
+     * @param processed the number of items processed since the last checkpoint
+     * @param failed    the number of items failed since the last checkpoint
+     * @return 1 if the partition was marked done, 0 if it had been taken over
+     */
+    @Modifying
+    @Query("UPDATE ProcessingLease l SET l.done = true, l.processed = l.processed + :processed, "
+            + "l.failed = l.failed + :failed WHERE l.id = :id AND l.owner = :owner AND l.done = false")
+    int complete(Long id, String owner, long processed, long failed);
+
+    /**
+     * Gives up the lease of a partition so it can be claimed again right away.
+     *
+     * @param id    the ID of the partition
+     * @param owner the node giving up the partition
+     * @return the number of leases released
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingLease l SET l.owner = NULL, l.expiresAt = NULL "
+            + "WHERE l.id = :id AND l.owner = :owner AND l.done = false")
+    int release(Long id, String owner);
+
+    /**
+     * Marks the partitions of a job done that nobody is working on, so that a cancelled job can finish.
+     *
+     * @param jobId the ID of the job
+     * @param now   the current time; leases that expired before it count as abandoned
+     * @return the number of partitions skipped
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingLease l SET l.done = true "
+            + "WHERE l.jobId = :jobId AND l.done = false AND (l.owner IS NULL OR l.expiresAt < :now)")
+    int skipUnclaimed(Long jobId, Instant now);
+}
@@ -0,0 +1,30 @@
+package com.siemens.internship.service;
+
+import java.time.Duration;
+
+/**
+ * Summary of a single run of the {@link ItemBatchProcessor}.
+ *
+ * @param items      the number of items processed
+ * @param failed     the number of items in chunks that were rolled back
+ * @param chunks     the number of chunks (and transactions) the run was split into
+ * @param statements the number of JDBC statements prepared during the run, i.e. database round trips
+ * @param elapsed    the wall-clock duration of the run
+ */
+public record BatchRunStats(long items, long failed, long chunks, long statements, Duration elapsed) {
+
+    /**
+     * @return the processing throughput of the run in items per second
+     */
+    public double itemsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : items * 1_000_000_000d / nanos;
+    }
+
+    /**
+     * @return the average number of database round trips spent per processed item
+     */
+    public double roundTripsPerItem() {
+        return items == 0 ? 0 : (double) statements / items;
+    }
+}
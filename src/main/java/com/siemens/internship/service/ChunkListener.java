@@ -0,0 +1,59 @@
+package com.siemens.internship.service;
+
+import java.util.List;
+
+/**
+ * Callback through which the {@link ItemBatchProcessor} reports the progress of a run.
+ */
+@FunctionalInterface
+public interface ChunkListener {
+
+    /**
+     * Called after a chunk has been committed.
+     *
+     * @param ids       the IDs of the items in the chunk
+     * @param processed the number of items that were updated; IDs deleted in the meantime and items rejected
+     *                  by an {@link ItemProcessor} are not counted
+     * @param failed    the number of items of the chunk that were dead-lettered, after the retry of its items
+     *                  one by one or by an {@link ItemProcessor}
+     */
+    void onChunkProcessed(List<Long> ids, int processed, int failed);
+
+    /**
+     * Called after a chunk has been rolled back. The run continues with the next chunk.
+     *
+     * @param ids   the IDs of the items in the failed chunk
+     * @param cause the exception that caused the rollback
+     */
+    default void onChunkFailed(List<Long> ids, RuntimeException cause) {
+    }
+
+    /**
+     * Called when a chunk is given back unprocessed because processing is shutting down. No checkpoint passes
+     * a withdrawn chunk, no more chunks are submitted, and a restarted run processes its items again.
+     *
+     * @param ids the IDs of the items in the withdrawn chunk
+     */
+    default void onChunkWithdrawn(List<Long> ids) {
+    }
+
+    /**
+     * Called whenever every chunk up to an ID is done, i.e. committed or given up on. Items up to that ID
+     * need not be processed again if the run is restarted.
+     *
+     * @param checkpointId the highest ID up to which every chunk of the run is done
+     * @param processed    the number of items processed up to the checkpoint
+     * @param failed       the number of items failed up to the checkpoint
+     */
+    default void onCheckpoint(long checkpointId, long processed, long failed) {
+    }
+
+    /**
+     * Polled before every chunk; returning true stops the run after the current chunk.
+     *
+     * @return whether the run has been cancelled
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
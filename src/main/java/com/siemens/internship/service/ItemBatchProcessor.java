@@ -0,0 +1,580 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.config.ProcessingExecutors;
+import com.siemens.internship.exception.ItemRejectedException;
+import com.siemens.internship.model.ChangeType;
+import com.siemens.internship.model.ChangeWindow;
+import com.siemens.internship.model.DeadLetter;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.DeadLetterRepository;
+import com.siemens.internship.repository.ItemChangeRepository;
+import com.siemens.internship.repository.ItemRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Chunked batch engine that processes every item in the repository.
+ * <p>
+ * Instead of one {@code findById} and one {@code save} per item, IDs are paged by key in chunks of
+ * {@link ItemProcessingProperties#getChunkSize()} and the status of each chunk is changed with a single
+ * {@code UPDATE ... WHERE id IN (...)} in its own transaction; the items themselves are never loaded.
+ * Chunks are processed concurrently on an executor chosen by {@link ItemProcessingProperties#getExecutor()}.
+ * A chunk that loses a write conflict against a concurrent writer is retried up to
+ * {@link ItemProcessingProperties#getConflictRetries()} times. A chunk that still fails has its items retried
+ * one by one, up to {@link ItemProcessingProperties#getItemRetries()} times each, so a single bad item does
+ * not fail the items next to it. Items that fail for good are recorded as {@link DeadLetter dead letters}.
+ * <p>
+ * If {@link ItemProcessor} beans are registered, chunks go through a {@link ProcessingPipeline} instead:
+ * a {@code load} stage reads the items of the chunk, every processor runs as a stage of its own, and a
+ * {@code persist} stage writes the surviving items back in one transaction per chunk. Items a processor
+ * rejects go to the dead letters; the rest of their chunk is still written.
+ * <p>
+ * Chunks finish out of order, so the listener is told through {@link ChunkListener#onCheckpoint} whenever all
+ * chunks up to an ID are done; a run that is restarted from there does not process any item twice.
+ */
+@Slf4j
+@Service
+public class ItemBatchProcessor {
+    public static final String PROCESSED_STATUS = "PROCESSED";
+    static final String LOAD_STAGE = "load";
+    static final String PERSIST_STAGE = "persist";
+    /**
+     * Connections of the pool left to requests and to the lease and checkpoint writes of a run when the
+     * in-flight limit is sized to the pool.
+     */
+    static final int RESERVED_CONNECTIONS = 2;
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemChangeRepository itemChangeRepository;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private DeadLetterRepository deadLetterRepository;
+    @Autowired
+    private ItemProcessingProperties properties;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private ProcessingMetrics processingMetrics;
+    @Autowired(required = false)
+    private List<ItemProcessor> itemProcessors = List.of();
+
+    private ExecutorService executor;
+    private ProcessingPipeline pipeline;
+    private int maxConcurrency;
+    private final Set<Run> runs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * State of one run, shared by its chunks. The chunks not yet covered by a checkpoint are guarded by the
+     * listener, like all listener calls.
+     */
+    private static final class Run {
+        final Long jobId;
+        final ChunkListener listener;
+        final Semaphore permits;
+        final AtomicLong items = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final Deque<Slot> pending = new ArrayDeque<>();
+        long checkpointProcessed;
+        long checkpointFailed;
+        volatile boolean withdrawn;
+
+        Run(Long jobId, ChunkListener listener, int maxConcurrency) {
+            this.jobId = jobId;
+            this.listener = listener;
+            this.permits = new Semaphore(maxConcurrency);
+        }
+    }
+
+    /**
+     * A submitted chunk, in submission order, until it is covered by a checkpoint.
+     */
+    private static final class Slot {
+        final List<Long> ids;
+        final long lastId;
+        /**
+         * Set by whoever gets to the chunk first: the executor running it, or the shutdown withdrawing it.
+         */
+        final AtomicBoolean started = new AtomicBoolean();
+        boolean done;
+        int processed;
+        int failed;
+
+        Slot(List<Long> ids) {
+            this.ids = ids;
+            this.lastId = ids.get(ids.size() - 1);
+        }
+    }
+
+    /**
+     * Creates the chunk executor and sizes the in-flight limit. Every chunk holds one connection while it
+     * runs, so unless configured otherwise the chunks in flight leave {@link #RESERVED_CONNECTIONS} connections
+     * of the pool to the rest of the application, and at least one chunk runs.
+     */
+    @PostConstruct
+    void startExecutor() {
+        executor = processingMetrics.monitor(
+                ProcessingExecutors.create(properties.getExecutor(), properties.getThreads()));
+        maxConcurrency = properties.getMaxConcurrency();
+        if (maxConcurrency <= 0) {
+            maxConcurrency = dataSource instanceof HikariDataSource hikari
+                    ? Math.max(1, hikari.getMaximumPoolSize() - RESERVED_CONNECTIONS)
+                    : properties.getThreads();
+        }
+        log.info("Item processing uses a {} executor with at most {} chunks in flight",
+                properties.getExecutor(), maxConcurrency);
+        if (!itemProcessors.isEmpty()) {
+            pipeline = createPipeline();
+            pipeline.start();
+        }
+    }
+
+    /**
+     * Stops processing. Chunks that have not been processed yet are withdrawn, so that runs in progress return
+     * without checkpointing past them.
+     */
+    @PreDestroy
+    void stopExecutor() {
+        executor.shutdownNow();
+        if (pipeline != null) {
+            pipeline.shutdown();
+            return;
+        }
+        // The executor drops the chunks it has not started, which would leave their runs waiting forever
+        runs.forEach(run -> {
+            synchronized (run.listener) {
+                List.copyOf(run.pending).stream()
+                        .filter(slot -> slot.started.compareAndSet(false, true))
+                        .forEach(slot -> {
+                            withdraw(run, slot);
+                            run.permits.release();
+                        });
+            }
+        });
+    }
+
+    private ProcessingPipeline createPipeline() {
+        ProcessingPipeline created = new ProcessingPipeline(processingMetrics);
+        addStage(created, LOAD_STAGE, 2,
+                chunk -> chunk.items = new ArrayList<>(itemRepository.findAllById(chunk.ids)));
+        for (ItemProcessor processor : itemProcessors) {
+            addStage(created, processor.getName(), 2, chunk -> {
+                List<Item> passed = new ArrayList<>(chunk.items.size());
+                for (Item item : chunk.items) {
+                    try {
+                        passed.add(withItemRetries(() -> Objects.requireNonNull(processor.process(item),
+                                "processed item")));
+                    } catch (RuntimeException e) {
+                        log.debug("Stage {} failed on item {}: {}", processor.getName(), item.getId(), e.getMessage());
+                        chunk.deadLetters.add(new DeadLetter(chunk.jobId, item.getId(), processor.getName(), e));
+                    }
+                }
+                chunk.items = passed;
+            });
+        }
+        addStage(created, PERSIST_STAGE, maxConcurrency, chunk -> {
+            if (chunk.items.isEmpty()) {
+                return;
+            }
+            chunk.items.forEach(item -> item.setStatus(PROCESSED_STATUS));
+            List<ItemUpdateResult> results = new ArrayList<>();
+            try {
+                results.add(withConflictRetries(chunk.ids, () -> itemService.updateAll(chunk.items)));
+            } catch (RuntimeException e) {
+                log.warn("Writing chunk starting at id {} failed, retrying its items one by one: {}",
+                        chunk.ids.get(0), e.getMessage());
+                for (Item item : chunk.items) {
+                    try {
+                        results.add(withItemRetries(() -> itemService.updateAll(List.of(item))));
+                    } catch (RuntimeException itemFailure) {
+                        chunk.deadLetters.add(new DeadLetter(chunk.jobId, item.getId(), PERSIST_STAGE, itemFailure));
+                    }
+                }
+            }
+            for (ItemUpdateResult result : results) {
+                chunk.processed += result.updated().size();
+                result.conflicts().forEach(id -> chunk.deadLetters.add(new DeadLetter(chunk.jobId, id, PERSIST_STAGE,
+                        new IllegalStateException("Item was changed while it was being processed"))));
+            }
+        });
+        return created;
+    }
+
+    private void addStage(ProcessingPipeline target, String name, int defaultThreads,
+                          ProcessingPipeline.StageHandler handler) {
+        ItemProcessingProperties.Stage settings = properties.getStages()
+                .getOrDefault(name, new ItemProcessingProperties.Stage());
+        int threads = settings.getThreads() != null ? settings.getThreads() : defaultThreads;
+        target.stage(name, threads, settings.getQueueCapacity(), handler);
+    }
+
+    /**
+     * Processes all items chunk by chunk, reporting every committed or failed chunk to the given listener.
+     * Chunks run concurrently on the processing executor; the listener is never called concurrently.
+     * A failing chunk is rolled back on its own and does not stop the run.
+     *
+     * @param listener receives the outcome of each chunk and decides whether the run is cancelled
+     * @return the statistics of the run, once every submitted chunk has finished
+     */
+    public BatchRunStats processAll(ChunkListener listener) {
+        return processRange(null, null, Long.MIN_VALUE, Long.MAX_VALUE, listener);
+    }
+
+    /**
+     * Processes the items with IDs from {@code firstId} to {@code lastId} chunk by chunk, like
+     * {@link #processAll(ChunkListener)} does for the whole table. Given a range of the change log, only the
+     * items created or updated in it are processed, and their IDs are paged from the log instead of the table.
+     *
+     * @param jobId    the job the range belongs to, recorded with its dead letters, or null
+     * @param changes  the range of the change log to process the changed items of, or null for all items
+     * @param firstId  the first ID of the range
+     * @param lastId   the last ID of the range
+     * @param listener receives the outcome of each chunk and decides whether the run is cancelled
+     * @return the statistics of the run, once every submitted chunk has finished
+     */
+    public BatchRunStats processRange(Long jobId, ChangeWindow changes, long firstId, long lastId,
+                                      ChunkListener listener) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long start = System.nanoTime();
+
+        int chunkSize = properties.getChunkSize();
+        Run run = new Run(jobId, listener, maxConcurrency);
+        runs.add(run);
+        long chunks = 0;
+        long after = firstId == Long.MIN_VALUE ? Long.MIN_VALUE : firstId - 1;
+        List<Long> ids;
+        try {
+            while (true) {
+                // Waiting for a permit can take a while, so the run is checked once one is free
+                run.permits.acquire();
+                try {
+                    ids = run.withdrawn || listener.isCancelled()
+                            ? List.of()
+                            : nextChunk(changes, after, lastId, chunkSize);
+                } catch (RuntimeException e) {
+                    run.permits.release();
+                    throw e;
+                }
+                if (ids.isEmpty()) {
+                    run.permits.release();
+                    break;
+                }
+                chunks++;
+                processingMetrics.chunkSubmitted();
+                submit(ids, run);
+                after = ids.get(ids.size() - 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Item processing was interrupted after {} chunks", chunks);
+        } finally {
+            // Holding every permit means that no chunk is in flight anymore
+            run.permits.acquireUninterruptibly(maxConcurrency);
+            runs.remove(run);
+        }
+        if (run.withdrawn) {
+            log.warn("Item processing was shut down after {} chunks; the rest is left for the next run", chunks);
+        }
+
+        return new BatchRunStats(run.items.get(), run.failed.get(), chunks,
+                statistics.getPrepareStatementCount() - statementsBefore,
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private List<Long> nextChunk(ChangeWindow changes, long after, long lastId, int chunkSize) {
+        if (changes == null) {
+            return itemRepository.findIdsInRange(after, lastId, Limit.of(chunkSize));
+        }
+        return itemChangeRepository.findChangedItemIdsInRange(changes.since(), changes.until(),
+                ChangeType.PROCESSABLE, after, lastId, Limit.of(chunkSize));
+    }
+
+    /**
+     * Hands a chunk to the pipeline, or to the executor if there is none. The permit of the chunk is
+     * released once it is done or withdrawn.
+     */
+    private void submit(List<Long> ids, Run run) throws InterruptedException {
+        Slot slot = new Slot(ids);
+        synchronized (run.listener) {
+            run.pending.add(slot);
+        }
+        if (pipeline == null) {
+            try {
+                executor.execute(() -> {
+                    if (!slot.started.compareAndSet(false, true)) {
+                        return;
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        runChunk(ids, run, slot);
+                    } catch (Throwable e) {
+                        // Errors too: a chunk left pending would hold back every later checkpoint of the run
+                        chunkCrashed(ids, e, start, run, slot);
+                    } finally {
+                        run.permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                withdraw(run, slot);
+                run.permits.release();
+            }
+            return;
+        }
+        ProcessingPipeline.Chunk chunk = new ProcessingPipeline.Chunk(run.jobId, ids,
+                new ProcessingPipeline.ChunkCallback() {
+                    @Override
+                    public void completed(ProcessingPipeline.Chunk chunk) {
+                        try {
+                            recordDeadLetters(chunk.deadLetters);
+                            chunkProcessed(chunk.ids, chunk.processed, chunk.deadLetters.size(), chunk.startNanos,
+                                    run, slot);
+                        } finally {
+                            run.permits.release();
+                        }
+                    }
+
+                    @Override
+                    public void failed(ProcessingPipeline.Chunk chunk, String stage, RuntimeException cause) {
+                        try {
+                            Set<Long> rejected = chunk.deadLetters.stream().map(DeadLetter::getItemId)
+                                    .collect(Collectors.toSet());
+                            List<DeadLetter> deadLetters = new ArrayList<>(chunk.deadLetters);
+                            chunk.ids.stream().filter(id -> !rejected.contains(id))
+                                    .forEach(id -> deadLetters.add(new DeadLetter(run.jobId, id, stage, cause)));
+                            recordDeadLetters(deadLetters);
+                            chunkFailed(chunk.ids, cause, chunk.startNanos, run, slot);
+                        } finally {
+                            run.permits.release();
+                        }
+                    }
+
+                    @Override
+                    public void withdrawn(ProcessingPipeline.Chunk chunk) {
+                        try {
+                            withdraw(run, slot);
+                        } finally {
+                            run.permits.release();
+                        }
+                    }
+                });
+        try {
+            pipeline.submit(chunk);
+        } catch (InterruptedException e) {
+            withdraw(run, slot);
+            run.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes back a chunk that was not processed because processing is shutting down, and stops the run.
+     * The chunk stays pending without being done, so no checkpoint passes it and a restarted run processes
+     * its items again; no dead letters are recorded for them. The caller releases the permit of the chunk.
+     */
+    private void withdraw(Run run, Slot slot) {
+        processingMetrics.chunkRejected();
+        run.withdrawn = true;
+        synchronized (run.listener) {
+            run.listener.onChunkWithdrawn(slot.ids);
+        }
+    }
+
+    /**
+     * Runs a chunk transaction, retrying it with exponential backoff while it loses write conflicts.
+     * Chunk transactions only set the state the chunk should end up in, so running one again is always safe.
+     */
+    private <T> T withConflictRetries(List<Long> ids, Supplier<T> transaction) {
+        return withRetries(transaction, ConcurrencyFailureException.class::isInstance,
+                properties.getConflictRetries(), properties.getConflictBackoff(), () -> {
+                    processingMetrics.chunkRetried();
+                    log.debug("Chunk starting at id {} conflicted, retrying", ids.get(0));
+                });
+    }
+
+    /**
+     * Runs an action for a single item, retrying it with exponential backoff unless the item was rejected.
+     */
+    private <T> T withItemRetries(Supplier<T> action) {
+        return withRetries(action, e -> !(e instanceof ItemRejectedException),
+                properties.getItemRetries(), properties.getItemRetryBackoff(), processingMetrics::itemRetried);
+    }
+
+    /**
+     * Runs an action, retrying it while it fails with a retryable exception. The pause before a retry doubles
+     * every time and is randomized by up to half, so that competing callers do not retry in lockstep.
+     */
+    private static <T> T withRetries(Supplier<T> action, Predicate<RuntimeException> retryable, int retries,
+                                     Duration backoff, Runnable onRetry) {
+        long backoffMillis = backoff.toMillis();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return action.get();
+            } catch (RuntimeException e) {
+                if (attempt >= retries || !retryable.test(e)) {
+                    throw e;
+                }
+                onRetry.run();
+                long pause = (backoffMillis << attempt) / 2;
+                pause += ThreadLocalRandom.current().nextLong(pause + 1);
+                try {
+                    Thread.sleep(pause);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a chunk on the executor. Failures caused by the executor shutting down, which interrupts the chunk,
+     * withdraw it instead of failing its items.
+     */
+    private void runChunk(List<Long> ids, Run run, Slot slot) {
+        long start = System.nanoTime();
+        RuntimeException chunkFailure;
+        try {
+            int processed = withConflictRetries(ids, () -> itemService.updateStatus(ids, PROCESSED_STATUS));
+            chunkProcessed(ids, processed, 0, start, run, slot);
+            return;
+        } catch (RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                withdraw(run, slot);
+                return;
+            }
+            log.warn("Chunk of {} items starting at id {} failed, retrying its items one by one: {}",
+                    ids.size(), ids.get(0), e.getMessage());
+            chunkFailure = e;
+        }
+        int processed = 0;
+        List<DeadLetter> deadLetters = new ArrayList<>();
+        for (Long id : ids) {
+            try {
+                processed += withItemRetries(() -> itemService.updateStatus(List.of(id), PROCESSED_STATUS));
+            } catch (RuntimeException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    withdraw(run, slot);
+                    return;
+                }
+                deadLetters.add(new DeadLetter(run.jobId, id, PERSIST_STAGE, e));
+            }
+        }
+        recordDeadLetters(deadLetters);
+        if (deadLetters.size() == ids.size()) {
+            chunkFailed(ids, chunkFailure, start, run, slot);
+        } else {
+            chunkProcessed(ids, processed, deadLetters.size(), start, run, slot);
+        }
+    }
+
+    /**
+     * Fails a chunk that {@link #runChunk} gave up on with an error, dead-lettering all of its items like the
+     * pipeline does for a failed stage. A chunk that was already done keeps its outcome.
+     */
+    private void chunkCrashed(List<Long> ids, Throwable error, long start, Run run, Slot slot) {
+        synchronized (run.listener) {
+            if (slot.done) {
+                log.error("Chunk of {} items starting at id {} failed after it was done", ids.size(), ids.get(0),
+                        error);
+                return;
+            }
+        }
+        RuntimeException cause = error instanceof RuntimeException e ? e
+                : new IllegalStateException("Chunk failed with " + error, error);
+        recordDeadLetters(ids.stream().map(id -> new DeadLetter(run.jobId, id, PERSIST_STAGE, cause)).toList());
+        chunkFailed(ids, cause, start, run, slot);
+    }
+
+    private void chunkProcessed(List<Long> ids, int processed, int failed, long start, Run run, Slot slot) {
+        processingMetrics.chunkProcessed(processed, System.nanoTime() - start);
+        processingMetrics.itemsRejected(failed);
+        run.items.addAndGet(processed);
+        run.failed.addAndGet(failed);
+        synchronized (run.listener) {
+            run.listener.onChunkProcessed(ids, processed, failed);
+            checkpoint(run, slot, processed, failed);
+        }
+    }
+
+    private void chunkFailed(List<Long> ids, RuntimeException e, long start, Run run, Slot slot) {
+        log.warn("Chunk of {} items starting at id {} failed", ids.size(), ids.get(0), e);
+        processingMetrics.chunkFailed(ids.size(), System.nanoTime() - start);
+        run.failed.addAndGet(ids.size());
+        synchronized (run.listener) {
+            run.listener.onChunkFailed(ids, e);
+            checkpoint(run, slot, 0, ids.size());
+        }
+    }
+
+    /**
+     * Marks a chunk done and reports a checkpoint if it and every chunk submitted before it are done.
+     * Must be called while holding the listener.
+     */
+    private static void checkpoint(Run run, Slot slot, int processed, int failed) {
+        slot.done = true;
+        slot.processed = processed;
+        slot.failed = failed;
+        Slot first;
+        Long checkpointId = null;
+        while ((first = run.pending.peek()) != null && first.done) {
+            run.pending.poll();
+            run.checkpointProcessed += first.processed;
+            run.checkpointFailed += first.failed;
+            checkpointId = first.lastId;
+        }
+        if (checkpointId != null) {
+            run.listener.onCheckpoint(checkpointId, run.checkpointProcessed, run.checkpointFailed);
+        }
+    }
+
+    /**
+     * Saves dead letters in a transaction of their own. Failing to record them must not fail the run,
+     * which has already counted the items as failed.
+     */
+    private void recordDeadLetters(List<DeadLetter> deadLetters) {
+        if (deadLetters.isEmpty()) {
+            return;
+        }
+        try {
+            deadLetterRepository.saveAll(deadLetters);
+            processingMetrics.deadLettered(deadLetters.size());
+        } catch (RuntimeException e) {
+            log.error("Could not record {} dead letters, starting with item {}",
+                    deadLetters.size(), deadLetters.get(0).getItemId(), e);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.model.BulkItemResult;
+import com.siemens.internship.model.BulkResponse;
+import com.siemens.internship.model.Item;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Validates and writes items in bulk. Items are consumed one at a time from the request, validated with
+ * the same constraints as single writes, and written in chunks of {@link ItemProcessingProperties#getChunkSize()}
+ * with one transaction per chunk, so large uploads never have to be held in memory as a whole.
+ */
+@Slf4j
+@Service
+public class ItemBulkService {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private Validator validator;
+    @Autowired
+    private ItemProcessingProperties properties;
+
+    /**
+     * Creates all given items. Any client-supplied ID or version is ignored.
+     *
+     * @param items the items to be created, in request order
+     * @return the outcome of every item
+     */
+    public BulkResponse createAll(Iterator<Item> items) {
+        return writeAll(items, item -> {
+            item.setId(null);
+            item.setVersion(null);
+            return null;
+        }, chunk -> itemService.saveAll(chunk).stream()
+                .collect(Collectors.toMap(Item::getId, saved -> HttpStatus.CREATED)));
+    }
+
+    /**
+     * Updates all given items. Every item must carry the ID of an existing item; an item that also carries
+     * a version is rejected with a conflict if the stored item has a different one.
+     *
+     * @param items the items to be updated, in request order
+     * @return the outcome of every item
+     */
+    public BulkResponse updateAll(Iterator<Item> items) {
+        return writeAll(items,
+                item -> item.getId() == null ? "Validation failed: id must not be null" : null,
+                chunk -> {
+                    ItemUpdateResult result = itemService.updateAll(chunk);
+                    Map<Long, HttpStatus> outcomes = new HashMap<>();
+                    result.updated().forEach(item -> outcomes.put(item.getId(), HttpStatus.OK));
+                    result.conflicts().forEach(id -> outcomes.put(id, HttpStatus.CONFLICT));
+                    return outcomes;
+                });
+    }
+
+    /**
+     * Deletes all items with the given IDs, one statement per chunk. The chunks run concurrently on the
+     * {@code @Async} executor, each in its own transaction, so a failed chunk does not undo the others;
+     * deleting is idempotent, so the whole request can simply be repeated.
+     *
+     * @param ids the unique identifiers of the items to be deleted
+     * @return a future completed once every chunk has committed, or completed exceptionally if any failed
+     */
+    public CompletableFuture<Void> deleteAll(List<Long> ids) {
+        int chunkSize = properties.getChunkSize();
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(itemService.deleteAllByIdAsync(List.copyOf(ids.subList(from, Math.min(ids.size(), from + chunkSize)))));
+        }
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Reads, validates and writes the items chunk by chunk.
+     *
+     * @param items    the items in request order
+     * @param preparer adjusts an item before validation and returns an error message if it must be rejected
+     * @param writer   writes one chunk of items and returns the outcome per ID; IDs without one were not found
+     * @return the outcome of every item, in request order
+     */
+    private BulkResponse writeAll(Iterator<Item> items, Function<Item, String> preparer,
+                                  Function<List<Item>, Map<Long, HttpStatus>> writer) {
+        List<BulkItemResult> results = new ArrayList<>();
+        List<Item> chunk = new ArrayList<>();
+        List<Integer> chunkIndexes = new ArrayList<>();
+        int index = 0;
+        while (true) {
+            Item item;
+            try {
+                if (!items.hasNext()) {
+                    break;
+                }
+                item = items.next();
+            } catch (RuntimeException e) {
+                // The position in a malformed body is undefined, so nothing after it can be read reliably
+                results.add(BulkItemResult.failure(index, null, HttpStatus.BAD_REQUEST.value(),
+                        "Malformed item: " + e.getMessage()));
+                break;
+            }
+
+            String error = preparer.apply(item);
+            if (error == null) {
+                error = validate(item);
+            }
+            if (error != null) {
+                results.add(BulkItemResult.failure(index, item.getId(), HttpStatus.BAD_REQUEST.value(), error));
+            } else {
+                chunk.add(item);
+                chunkIndexes.add(index);
+                if (chunk.size() >= properties.getChunkSize()) {
+                    flush(chunk, chunkIndexes, writer, results);
+                }
+            }
+            index++;
+        }
+        flush(chunk, chunkIndexes, writer, results);
+
+        results.sort(Comparator.comparingInt(BulkItemResult::index));
+        return BulkResponse.of(results);
+    }
+
+    private void flush(List<Item> chunk, List<Integer> chunkIndexes, Function<List<Item>, Map<Long, HttpStatus>> writer,
+                       List<BulkItemResult> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            Map<Long, HttpStatus> outcomes = writer.apply(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                Long id = chunk.get(i).getId();
+                HttpStatus outcome = outcomes.getOrDefault(id, HttpStatus.NOT_FOUND);
+                results.add(switch (outcome) {
+                    case NOT_FOUND -> BulkItemResult.failure(chunkIndexes.get(i), id, outcome.value(), "Item not found");
+                    case CONFLICT -> BulkItemResult.failure(chunkIndexes.get(i), id, outcome.value(),
+                            "Item has been changed since version " + chunk.get(i).getVersion());
+                    default -> BulkItemResult.success(chunkIndexes.get(i), id, outcome.value());
+                });
+            }
+        } catch (OptimisticLockingFailureException e) {
+            log.info("Bulk write of {} items lost a race with a concurrent write", chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(BulkItemResult.failure(chunkIndexes.get(i), chunk.get(i).getId(),
+                        HttpStatus.CONFLICT.value(), "Item was changed concurrently"));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Bulk write of {} items failed", chunk.size(), e);
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(BulkItemResult.failure(chunkIndexes.get(i), chunk.get(i).getId(),
+                        HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage()));
+            }
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
+    /**
+     * Validates an item against its bean validation constraints.
+     *
+     * @param item the item to be validated
+     * @return an error message in the format of {@link com.siemens.internship.exception.ItemInsertionException},
+     *         or null if the item is valid
+     */
+    private String validate(Item item) {
+        Set<ConstraintViolation<Item>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return "Validation failed: " + violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,81 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ChangeLogProperties;
+import com.siemens.internship.model.ItemChange;
+import com.siemens.internship.model.ItemPage;
+import com.siemens.internship.repository.ItemChangeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Reads the item change log. Readers only see the log up to its {@link #settledSeq() settled} end: a change
+ * gets its sequence number when it is written, so a younger entry may still be joined by an older number
+ * from a transaction that has not committed yet, and a reader that moved past it would never see it.
+ * <p>
+ * The log is pruned once processing runs no longer need its oldest entries, see {@link #pruneBefore(long)}, so
+ * a consumer that falls further behind than the last completed processing run misses the pruned changes.
+ */
+@Service
+public class ItemChangeService {
+    @Autowired
+    private ItemChangeRepository itemChangeRepository;
+    @Autowired
+    private ChangeLogProperties properties;
+
+    /**
+     * @return the sequence number up to which the log will not change anymore, or 0 if it is empty; ages are
+     *         measured by the clock of the database that stamped the changes
+     */
+    public long settledSeq() {
+        return itemChangeRepository.findNewestSeqOlderThan(properties.getSettleTime().toMillis()).orElse(0L);
+    }
+
+    /**
+     * Moves the end of a range that was read back by {@link ChangeLogProperties#getOverlap()}, so that a reader
+     * continuing from there reads the overlap again and still finds changes that settled late.
+     *
+     * @param seq the sequence number of the last change read
+     * @return the sequence number of the newest change made at least the overlap before it, 0 if there is none,
+     *         or {@code seq} itself if that change is no longer in the log
+     */
+    public long withOverlap(long seq) {
+        return itemChangeRepository.findById(seq)
+                .map(last -> itemChangeRepository
+                        .findFirstByChangedAtLessThanEqualOrderBySeqDesc(
+                                last.getChangedAt().minus(properties.getOverlap()))
+                        .map(ItemChange::getSeq)
+                        .orElse(0L))
+                .orElse(seq);
+    }
+
+    /**
+     * Deletes the entries that come before the overlap ahead of the given one. A reader continuing from that
+     * entry or later, moved back by {@link #withOverlap(long)}, still finds everything it reads.
+     *
+     * @param seq the sequence number of the oldest entry a reader continues from
+     * @return the number of deleted entries
+     */
+    public int pruneBefore(long seq) {
+        long keepFrom = withOverlap(seq);
+        return keepFrom > 0 ? itemChangeRepository.deleteBySeqLessThan(keepFrom) : 0;
+    }
+
+    /**
+     * Retrieves one page of the settled change log, keyset-paginated by sequence number. The log has no last
+     * page, so the cursor is never null: a consumer tails the log by passing the cursor of each page as
+     * {@code since} of the next request, and polls again with the same cursor after an empty page.
+     *
+     * @param since the sequence number of the last change already consumed, or null to start from the beginning
+     * @param limit the maximum number of changes on the page
+     * @return the page of changes together with the sequence number to continue from
+     */
+    public ItemPage<ItemChange> findChanges(Long since, int limit) {
+        long after = since != null ? since : 0;
+        List<ItemChange> changes = itemChangeRepository.findBySeqGreaterThanAndSeqLessThanEqualOrderBySeq(
+                after, settledSeq(), Limit.of(limit));
+        return new ItemPage<>(changes, changes.isEmpty() ? after : changes.get(changes.size() - 1).getSeq());
+    }
+}
@@ -0,0 +1,29 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+
+/**
+ * A stage of item processing, such as validation, enrichment or transformation.
+ * <p>
+ * Every bean implementing this interface becomes a stage of the processing pipeline of
+ * {@link ItemBatchProcessor}, in {@link org.springframework.core.annotation.Order} order, between loading
+ * the items of a chunk and writing them back as {@value ItemBatchProcessor#PROCESSED_STATUS}. Each stage runs
+ * on its own threads, configured under {@code item.processing.stages.<name>.*}, so a slow stage can be
+ * scaled out without touching the others. Implementations are called concurrently and must be thread-safe.
+ */
+public interface ItemProcessor {
+
+    /**
+     * @return the name of the stage, used for its settings and metrics
+     */
+    String getName();
+
+    /**
+     * Processes one item.
+     *
+     * @param item the item as loaded or as returned by the previous stage
+     * @return the item to hand to the next stage, usually the given one; never null
+     * @throws RuntimeException to reject the item: it is not written back and counts as failed
+     */
+    Item process(Item item);
+}
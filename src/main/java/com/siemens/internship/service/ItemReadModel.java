@@ -0,0 +1,541 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.CacheConfig;
+import com.siemens.internship.config.ReadModelProperties;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemChange;
+import com.siemens.internship.model.ReadModelStatistics;
+import com.siemens.internship.model.StatusCount;
+import com.siemens.internship.repository.ItemChangeRepository;
+import com.siemens.internship.repository.ItemRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compact in-memory copy of all items, serving lookups by ID and status counts without Hibernate.
+ * Enabled with {@code item.read-model.enabled}.
+ * <p>
+ * Items are stored column by column in slots: the ID, version and status code in primitive arrays, with the
+ * status replaced by its index in a dictionary, and the name, description and email as one UTF-8 record in
+ * off-heap segments. A {@link LongIntHashMap} maps IDs to slots without boxing. A replaced record leaves a gap
+ * in its segment; once gaps take more space than the records in use, the live records are copied into fresh
+ * segments.
+ * <p>
+ * The model is loaded in the background at startup and then kept in sync by applying the item change log every
+ * {@link ReadModelProperties#getRefreshInterval()}, so it also sees the writes of other nodes. Changes younger
+ * than the settle time are applied again on every refresh, as older sequence numbers may still commit among them.
+ * Items written through {@link ItemService} on this node are marked stale when the write commits, and lookups
+ * of stale or unknown items fall back to the database, so a client reads its own writes.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "item.read-model", name = "enabled", havingValue = "true")
+public class ItemReadModel {
+    private static final long NO_VERSION = Long.MIN_VALUE;
+    private static final long FREE_SLOT = -1;
+    private static final int INITIAL_SLOTS = 1024;
+    private static final int ENTITY_SAMPLE_SIZE = 1000;
+
+    /**
+     * Estimated heap bytes of a cached entity apart from its strings, on a 64-bit JVM with compressed references:
+     * the Item object with six references (40), its boxed ID, version and cache key (3 x 16), and the Caffeine
+     * node with its hash table entry (about 96).
+     */
+    private static final long ENTITY_FIXED_BYTES = 40 + 3 * 16 + 96;
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemChangeRepository itemChangeRepository;
+    @Autowired
+    private ItemChangeService itemChangeService;
+    @Autowired
+    private ReadModelProperties properties;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final LongIntHashMap slotsById = new LongIntHashMap(INITIAL_SLOTS);
+    private long[] ids = new long[INITIAL_SLOTS];
+    private long[] versions = new long[INITIAL_SLOTS];
+    private int[] statusCodes = new int[INITIAL_SLOTS];
+    private long[] records = new long[INITIAL_SLOTS];
+    private final BitSet stale = new BitSet();
+    private int[] freeSlots = new int[INITIAL_SLOTS];
+    private int freeCount;
+    private int slotCount;
+    private final List<String> statuses = new ArrayList<>();
+    private final Map<String, Integer> statusIndex = new HashMap<>();
+    private long[] statusCounts = new long[16];
+    private List<ByteBuffer> segments = new ArrayList<>();
+    private long writeOffset;
+    private long liveBytes;
+    private long deadBytes;
+
+    private int segmentSize;
+    private volatile boolean loaded;
+    private volatile long changeSeq;
+    private ScheduledExecutorService refresher;
+
+    @PostConstruct
+    void start() {
+        segmentSize = (int) properties.getSegmentSize().toBytes();
+        Arrays.fill(records, FREE_SLOT);
+        Gauge.builder("item.read-model.items", this, model -> model.statistics(false).items())
+                .description("Items held by the in-memory read model")
+                .register(meterRegistry);
+        Gauge.builder("item.read-model.memory", this, model -> model.statistics(false).heapBytes())
+                .description("Memory taken by the in-memory read model")
+                .baseUnit("bytes")
+                .tag("area", "heap")
+                .register(meterRegistry);
+        Gauge.builder("item.read-model.memory", this, model -> model.statistics(false).offHeapBytes())
+                .description("Memory taken by the in-memory read model")
+                .baseUnit("bytes")
+                .tag("area", "off-heap")
+                .register(meterRegistry);
+        long intervalMillis = properties.getRefreshInterval().toMillis();
+        refresher = Executors.newSingleThreadScheduledExecutor();
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                refresh();
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh the item read model", e);
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * @return whether the initial load has finished, so that lookups are served from memory
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Retrieves an item by its unique identifier from memory. Items unknown to the model or written on this node
+     * since it last applied their change are read from the database.
+     *
+     * @param id the unique identifier of the item to be retrieved
+     * @return an Optional containing the Item if it exists, or an empty Optional if the item is not found
+     */
+    public Optional<Item> findById(Long id) {
+        if (loaded) {
+            lock.readLock().lock();
+            try {
+                int slot = slotsById.get(id);
+                if (slot >= 0 && !stale.get(slot)) {
+                    return Optional.of(read(slot));
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return itemRepository.findById(id);
+    }
+
+    /**
+     * Counts the items per status from memory, as of the last refresh, or in the database until the model is loaded.
+     *
+     * @return the number of items for every status in use
+     */
+    public List<StatusCount> countByStatus() {
+        if (!loaded) {
+            return itemRepository.countByStatus();
+        }
+        lock.readLock().lock();
+        try {
+            List<StatusCount> counts = new ArrayList<>();
+            for (int code = 0; code < statuses.size(); code++) {
+                if (statusCounts[code] > 0) {
+                    counts.add(new StatusCount(statuses.get(code), statusCounts[code]));
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Marks the given items stale once the current transaction commits, or right away outside of one, so that
+     * lookups read them from the database until their changes are applied.
+     *
+     * @param ids the unique identifiers of the written items
+     */
+    public void invalidate(Collection<Long> ids) {
+        List<Long> written = List.copyOf(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markStale(written);
+                }
+            });
+        } else {
+            markStale(written);
+        }
+    }
+
+    /**
+     * @return the memory use of the model and an estimate for the entity cache
+     */
+    public ReadModelStatistics statistics() {
+        return statistics(true);
+    }
+
+    /**
+     * Loads all items on the first call and applies the new entries of the change log on every later one.
+     */
+    synchronized void refresh() {
+        if (!loaded) {
+            load();
+        } else {
+            catchUp();
+        }
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        long seq = itemChangeService.settledSeq();
+        long after = Long.MIN_VALUE;
+        List<Item> page;
+        while (!(page = itemRepository.findPageAfter(after, Limit.of(properties.getBatchSize()))).isEmpty()) {
+            apply(page.stream().map(Item::getId).toList(), page);
+            after = page.get(page.size() - 1).getId();
+        }
+        changeSeq = seq;
+        loaded = true;
+        ReadModelStatistics statistics = statistics(false);
+        log.info("Loaded {} items into the read model in {} ms, {} bytes per item",
+                statistics.items(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                String.format("%.1f", statistics.bytesPerItem()));
+    }
+
+    private void catchUp() {
+        long settled = itemChangeService.settledSeq();
+        long after = changeSeq;
+        List<ItemChange> changes;
+        do {
+            changes = itemChangeRepository.findBySeqGreaterThanAndSeqLessThanEqualOrderBySeq(
+                    after, Long.MAX_VALUE, Limit.of(properties.getBatchSize()));
+            if (changes.isEmpty()) {
+                break;
+            }
+            Set<Long> changed = changes.stream().map(ItemChange::getItemId).collect(Collectors.toSet());
+            apply(changed, itemRepository.findAllById(changed));
+            after = changes.get(changes.size() - 1).getSeq();
+        } while (changes.size() == properties.getBatchSize());
+        changeSeq = Math.max(changeSeq, Math.min(settled, after));
+    }
+
+    /**
+     * Stores the current state of the given items and removes those of the IDs that no longer exist.
+     */
+    private void apply(Collection<Long> changed, List<Item> current) {
+        Map<Long, Item> byId = current.stream().collect(Collectors.toMap(Item::getId, Function.identity()));
+        lock.writeLock().lock();
+        try {
+            for (Long id : changed) {
+                Item item = byId.get(id);
+                if (item != null) {
+                    put(item);
+                } else {
+                    remove(id);
+                }
+            }
+            if (deadBytes > liveBytes && deadBytes >= segmentSize) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markStale(Collection<Long> written) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : written) {
+                int slot = slotsById.get(id);
+                if (slot >= 0) {
+                    stale.set(slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Item item) {
+        byte[] record = encode(item);
+        int slot = slotsById.get(item.getId());
+        if (slot < 0) {
+            slot = allocateSlot();
+            slotsById.put(item.getId(), slot);
+            ids[slot] = item.getId();
+        } else {
+            int size = recordSize(records[slot]);
+            liveBytes -= size;
+            deadBytes += size;
+            statusCounts[statusCodes[slot]]--;
+        }
+        int status = statusCode(item.getStatus());
+        records[slot] = append(record);
+        versions[slot] = item.getVersion() != null ? item.getVersion() : NO_VERSION;
+        statusCodes[slot] = status;
+        statusCounts[status]++;
+        liveBytes += record.length;
+        stale.clear(slot);
+    }
+
+    private void remove(long id) {
+        int slot = slotsById.remove(id);
+        if (slot < 0) {
+            return;
+        }
+        int size = recordSize(records[slot]);
+        liveBytes -= size;
+        deadBytes += size;
+        statusCounts[statusCodes[slot]]--;
+        records[slot] = FREE_SLOT;
+        stale.clear(slot);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private Item read(int slot) {
+        long record = records[slot];
+        ByteBuffer segment = segments.get((int) (record / segmentSize));
+        int position = (int) (record % segmentSize);
+        String[] fields = new String[3];
+        for (int field = 0; field < fields.length; field++) {
+            short length = segment.getShort(position);
+            position += Short.BYTES;
+            if (length >= 0) {
+                byte[] bytes = new byte[length];
+                segment.get(position, bytes);
+                fields[field] = new String(bytes, StandardCharsets.UTF_8);
+                position += length;
+            }
+        }
+        Item item = new Item(ids[slot], fields[0], fields[1], statuses.get(statusCodes[slot]), fields[2]);
+        item.setVersion(versions[slot] != NO_VERSION ? versions[slot] : null);
+        return item;
+    }
+
+    /**
+     * Encodes the text fields of an item as one record: for each of name, description and email, its length in
+     * UTF-8 bytes as a short, or -1 for null, followed by the bytes.
+     */
+    private static byte[] encode(Item item) {
+        byte[][] fields = {utf8(item.getName()), utf8(item.getDescription()), utf8(item.getEmail())};
+        int size = 0;
+        for (byte[] field : fields) {
+            size += Short.BYTES + (field != null ? field.length : 0);
+        }
+        ByteBuffer record = ByteBuffer.allocate(size);
+        for (byte[] field : fields) {
+            if (field == null) {
+                record.putShort((short) -1);
+            } else {
+                record.putShort((short) field.length);
+                record.put(field);
+            }
+        }
+        return record.array();
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private int recordSize(long record) {
+        return recordSize(segments.get((int) (record / segmentSize)), (int) (record % segmentSize));
+    }
+
+    private static int recordSize(ByteBuffer segment, int start) {
+        int position = start;
+        for (int field = 0; field < 3; field++) {
+            short length = segment.getShort(position);
+            position += Short.BYTES + Math.max(0, length);
+        }
+        return position - start;
+    }
+
+    /**
+     * Appends a record to the last segment, starting a new one if it does not fit.
+     *
+     * @return the offset of the record over all segments
+     */
+    private long append(byte[] record) {
+        if (record.length > segmentSize) {
+            throw new IllegalStateException("An item record of " + record.length
+                    + " bytes does not fit into segments of " + segmentSize + " bytes");
+        }
+        int position = (int) (writeOffset % segmentSize);
+        if (writeOffset / segmentSize >= segments.size() || position + record.length > segmentSize) {
+            segments.add(ByteBuffer.allocateDirect(segmentSize));
+            writeOffset = (long) (segments.size() - 1) * segmentSize;
+            position = 0;
+        }
+        segments.get(segments.size() - 1).put(position, record);
+        long offset = writeOffset;
+        writeOffset += record.length;
+        return offset;
+    }
+
+    /**
+     * Copies the records in use into fresh segments, releasing the space of replaced and removed ones.
+     * The old segments are freed once the garbage collector reclaims their buffers.
+     */
+    private void compact() {
+        List<ByteBuffer> old = segments;
+        long reclaimed = deadBytes;
+        segments = new ArrayList<>();
+        writeOffset = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            long record = records[slot];
+            if (record == FREE_SLOT) {
+                continue;
+            }
+            ByteBuffer segment = old.get((int) (record / segmentSize));
+            int position = (int) (record % segmentSize);
+            byte[] bytes = new byte[recordSize(segment, position)];
+            segment.get(position, bytes);
+            records[slot] = append(bytes);
+        }
+        deadBytes = 0;
+        log.debug("Compacted the item read model from {} to {} segments, reclaiming {} bytes",
+                old.size(), segments.size(), reclaimed);
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            statusCodes = Arrays.copyOf(statusCodes, capacity);
+            records = Arrays.copyOf(records, capacity);
+            Arrays.fill(records, slotCount, capacity, FREE_SLOT);
+        }
+        return slotCount++;
+    }
+
+    private int statusCode(String status) {
+        Integer code = statusIndex.get(status);
+        if (code == null) {
+            code = statuses.size();
+            statuses.add(status);
+            statusIndex.put(status, code);
+            if (code == statusCounts.length) {
+                statusCounts = Arrays.copyOf(statusCounts, statusCounts.length * 2);
+            }
+        }
+        return code;
+    }
+
+    private ReadModelStatistics statistics(boolean withEntityCache) {
+        long items;
+        int statusCount;
+        long heapBytes;
+        long offHeapBytes;
+        long offHeapUsedBytes;
+        lock.readLock().lock();
+        try {
+            items = slotsById.size();
+            statusCount = statuses.size();
+            heapBytes = slotsById.memoryBytes()
+                    + (long) ids.length * (Long.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES)
+                    + (long) freeSlots.length * Integer.BYTES
+                    + stale.size() / Byte.SIZE
+                    + (long) statusCounts.length * Long.BYTES;
+            offHeapBytes = (long) segments.size() * segmentSize;
+            offHeapUsedBytes = liveBytes + deadBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+        double bytesPerItem = items == 0 ? 0 : (double) (heapBytes + offHeapUsedBytes) / items;
+        long entityCacheSize = 0;
+        double entityCacheBytesPerItem = 0;
+        if (withEntityCache) {
+            Cache cache = cacheManager.getCache(CacheConfig.ITEMS_CACHE);
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+                entityCacheSize = caffeine.estimatedSize();
+                entityCacheBytesPerItem = caffeine.asMap().values().stream()
+                        .filter(Item.class::isInstance)
+                        .limit(ENTITY_SAMPLE_SIZE)
+                        .mapToLong(value -> estimateEntityBytes((Item) value))
+                        .average()
+                        .orElse(0);
+            }
+        }
+        return new ReadModelStatistics(loaded, items, statusCount, heapBytes, offHeapBytes, offHeapUsedBytes,
+                bytesPerItem, changeSeq, entityCacheSize, entityCacheBytesPerItem);
+    }
+
+    /**
+     * Estimates the heap taken by a cached item entity, see {@link #ENTITY_FIXED_BYTES}. Every string is a String
+     * object (24) and its byte array (16 plus one byte per character, or two unless all are Latin-1), 8-aligned.
+     */
+    private static long estimateEntityBytes(Item item) {
+        return ENTITY_FIXED_BYTES + stringBytes(item.getName()) + stringBytes(item.getDescription())
+                + stringBytes(item.getStatus()) + stringBytes(item.getEmail());
+    }
+
+    private static long stringBytes(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int bytesPerChar = value.chars().allMatch(c -> c < 256) ? 1 : 2;
+        long array = 16 + (long) value.length() * bytesPerChar;
+        return 24 + (array + 7) / 8 * 8;
+    }
+}
@@ -0,0 +1,143 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ReindexResult;
+import com.siemens.internship.model.SearchHit;
+import com.siemens.internship.model.SearchPage;
+import com.siemens.internship.repository.ItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over the names and descriptions of the items, backed by an inverted index in the
+ * {@code item_term} table. {@link ItemService} indexes every write that changes the text of an item in the
+ * transaction of the write, and deleted items take their postings with them, so a search sees a write as soon
+ * as it has committed. {@link #reindex()} indexes the items written before the index existed.
+ */
+@Slf4j
+@Service
+public class ItemSearchService {
+    /**
+     * Terms of a query beyond this many are ignored.
+     */
+    static final int MAX_QUERY_TERMS = 10;
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemProcessingProperties properties;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Indexes the given items, replacing whatever postings they had. Runs in the transaction that wrote them,
+     * so the index never disagrees with the committed items.
+     *
+     * @param items the written items, carrying their IDs
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void index(Collection<Item> items) {
+        Map<Long, Map<String, Integer>> postings = new HashMap<>();
+        items.forEach(item -> postings.put(item.getId(), SearchTerms.weights(item)));
+        itemRepository.replaceTerms(postings);
+    }
+
+    /**
+     * Finds the items whose name or description contains every term of the query, ranked by TF-IDF: a term
+     * counts more the more often it occurs in the item, three times as much in the name, and the fewer items
+     * contain it. Only the postings of the query terms are read, through the primary key of the index.
+     *
+     * @param query  the search terms, separated by anything but letters and digits; case and accents are ignored
+     * @param offset the number of hits to skip
+     * @param limit  the maximum number of hits on the page
+     * @return the page of hits, best match first, together with the offset of the next page
+     */
+    @Transactional(readOnly = true)
+    public SearchPage search(String query, int offset, int limit) {
+        Set<String> terms = SearchTerms.of(query).stream()
+                .distinct()
+                .limit(MAX_QUERY_TERMS)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, Long> itemsByTerm = terms.isEmpty() ? Map.of() : itemRepository.countItemsByTerm(terms);
+        if (terms.isEmpty() || itemsByTerm.size() < terms.size()) {
+            // A term no item contains leaves nothing to rank
+            return new SearchPage(List.of(), null);
+        }
+        long items = itemRepository.count();
+        Map<String, Double> inverseFrequencies = new LinkedHashMap<>();
+        terms.forEach(term -> inverseFrequencies.put(term, Math.log(1 + (double) items / itemsByTerm.get(term))));
+
+        List<SearchHit> hits = itemRepository.search(inverseFrequencies, offset, limit + 1);
+        return hits.size() > limit
+                ? new SearchPage(List.copyOf(hits.subList(0, limit)), offset + limit)
+                : new SearchPage(hits, null);
+    }
+
+    /**
+     * Asynchronous variant of {@link #search(String, int, int)}, run on the {@code @Async} executor.
+     *
+     * @param query  the search terms
+     * @param offset the number of hits to skip
+     * @param limit  the maximum number of hits on the page
+     * @return a future completed with the page of hits once it has been read
+     */
+    @Async
+    public CompletableFuture<SearchPage> searchAsync(String query, int offset, int limit) {
+        return CompletableFuture.completedFuture(search(query, offset, limit));
+    }
+
+    /**
+     * Rebuilds the postings of all items, in chunks of {@code item.processing.chunk-size} in ascending ID order.
+     * Each chunk is indexed in a transaction of its own, so the job does not lock the whole index and writes
+     * made meanwhile keep indexing themselves; running it again is harmless.
+     *
+     * @return the number of items that were indexed
+     */
+    public long reindex() {
+        int chunkSize = properties.getChunkSize();
+        long start = System.nanoTime();
+        long indexed = 0;
+        long after = Long.MIN_VALUE;
+        while (true) {
+            long from = after;
+            List<Item> chunk = transactionTemplate.execute(status -> {
+                List<Item> items = itemRepository.findPageAfter(from, Limit.of(chunkSize));
+                index(items);
+                return items;
+            });
+            indexed += chunk.size();
+            if (chunk.size() < chunkSize) {
+                log.info("Indexed {} items for search in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+                return indexed;
+            }
+            after = chunk.get(chunk.size() - 1).getId();
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #reindex()}, run on the {@code @Async} executor.
+     *
+     * @return a future completed with the outcome once every item has been indexed
+     */
+    @Async
+    public CompletableFuture<ReindexResult> reindexAsync() {
+        return CompletableFuture.completedFuture(new ReindexResult(reindex()));
+    }
+}
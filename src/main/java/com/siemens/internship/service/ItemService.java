@@ -1,26 +1,61 @@
 package com.siemens.internship.service;
 
+import com.siemens.internship.config.CacheConfig;
+import com.siemens.internship.model.ChangeType;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemFilter;
+import com.siemens.internship.model.ItemPage;
+import com.siemens.internship.model.ItemSummary;
+import com.siemens.internship.model.StatusCount;
+import com.siemens.internship.repository.ItemChangeRepository;
 import com.siemens.internship.repository.ItemRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Vector;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Reads and writes items. Every write also appends to the item change log in the same transaction,
+ * see {@link com.siemens.internship.model.ItemChange}, and writes that change the name or description
+ * of an item update the search index of {@link ItemSearchService}.
+ */
 @Service
 public class ItemService {
     @Autowired
     private ItemRepository itemRepository;
-    private static ExecutorService executor = Executors.newFixedThreadPool(10);
-    private Vector<Item> processedItems = new Vector<>();
-    private AtomicInteger processedCount = new AtomicInteger(0);
-
+    @Autowired
+    private ItemChangeRepository itemChangeRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired(required = false)
+    private ItemReadModel itemReadModel;
+    @Autowired
+    private ItemSearchService itemSearchService;
 
     /**
      * Retrieves all items from the repository.
@@ -32,11 +67,100 @@ public class ItemService {
     }
 
     /**
-     * Retrieves an item by its unique identifier.
+     * Retrieves one page of items using keyset pagination: the page starts right after the given ID,
+     * so every page is an index range scan no matter how deep into the table it is.
+     *
+     * @param after the ID after which the page starts, or null to start from the beginning
+     * @param limit the maximum number of items on the page
+     * @return the page of items together with the cursor of the next page
+     */
+    public ItemPage<Item> findPage(Long after, int limit) {
+        List<Item> items = itemRepository.findPageAfter(after != null ? after : Long.MIN_VALUE, Limit.of(limit));
+        return ItemPage.of(items, limit, Item::getId);
+    }
+
+    /**
+     * Asynchronous variant of {@link #findPage(Long, int)}, run on the {@code @Async} executor.
+     *
+     * @param after the ID after which the page starts, or null to start from the beginning
+     * @param limit the maximum number of items on the page
+     * @return a future completed with the page once it has been read
+     */
+    @Async
+    public CompletableFuture<ItemPage<Item>> findPageAsync(Long after, int limit) {
+        return CompletableFuture.completedFuture(findPage(after, limit));
+    }
+
+    /**
+     * Retrieves one page of item summaries matching the given filter, using keyset pagination.
+     *
+     * @param filter the criteria the items have to match
+     * @param after  the ID after which the page starts, or null to start from the beginning
+     * @param limit  the maximum number of summaries on the page
+     * @return the page of summaries together with the cursor of the next page
+     */
+    public ItemPage<ItemSummary> findSummaries(ItemFilter filter, Long after, int limit) {
+        List<ItemSummary> items = itemRepository.findSummaries(filter, after != null ? after : Long.MIN_VALUE, limit);
+        return ItemPage.of(items, limit, ItemSummary::id);
+    }
+
+    /**
+     * Asynchronous variant of {@link #findSummaries(ItemFilter, Long, int)}, run on the {@code @Async} executor.
+     *
+     * @param filter the criteria the items have to match
+     * @param after  the ID after which the page starts, or null to start from the beginning
+     * @param limit  the maximum number of summaries on the page
+     * @return a future completed with the page once it has been read
+     */
+    @Async
+    public CompletableFuture<ItemPage<ItemSummary>> findSummariesAsync(ItemFilter filter, Long after, int limit) {
+        return CompletableFuture.completedFuture(findSummaries(filter, after, limit));
+    }
+
+    /**
+     * Counts the items per status.
+     *
+     * @return the number of items for every status in use
+     */
+    public List<StatusCount> countByStatus() {
+        return itemRepository.countByStatus();
+    }
+
+    /**
+     * Asynchronous variant of {@link #countByStatus()}, run on the {@code @Async} executor.
+     *
+     * @return a future completed with the number of items for every status in use
+     */
+    @Async
+    public CompletableFuture<List<StatusCount>> countByStatusAsync() {
+        return CompletableFuture.completedFuture(countByStatus());
+    }
+
+    /**
+     * Passes every item in ascending ID order to the given consumer, one at a time.
+     * Each item is detached from the persistence context once consumed, so memory use does not grow
+     * with the size of the table.
+     *
+     * @param consumer the consumer receiving the items
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Item> consumer) {
+        try (Stream<Item> items = itemRepository.streamAll()) {
+            items.forEach(item -> {
+                consumer.accept(item);
+                entityManager.detach(item);
+            });
+        }
+    }
+
+    /**
+     * Retrieves an item by its unique identifier. Found items are served from the item cache;
+     * misses are not cached, so a newly created item is visible right away.
      *
      * @param id the unique identifier of the item to be retrieved
      * @return an Optional containing the Item if it exists, or an empty Optional if the item is not found
      */
+    @Cacheable(cacheNames = CacheConfig.ITEMS_CACHE, unless = "#result == null")
     public Optional<Item> findById(Long id) {
         return itemRepository.findById(id);
     }
@@ -47,66 +171,225 @@ public class ItemService {
      * @param item the Item object to be saved
      * @return the saved Item object
      */
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.ITEMS_CACHE, key = "#result.id")
     public Item save(Item item) {
-        return itemRepository.save(item);
+        ChangeType type = item.getId() == null ? ChangeType.CREATED : updateType(item.getStatus());
+        Item saved = itemRepository.save(item);
+        itemSearchService.index(List.of(saved));
+        recordChanges(List.of(saved.getId()), type);
+        return saved;
     }
 
     /**
-     * Deletes an item from the repository by its unique identifier.
+     * Inserts the given new items in a single transaction. The IDs come from a pooled sequence and the
+     * inserts are sent as JDBC batches.
      *
-     * @param id the unique identifier of the item to be deleted
+     * @param items the new items to be saved
+     * @return the saved items, with their generated IDs
      */
-    public void deleteById(Long id) {
-        itemRepository.deleteById(id);
+    @Transactional
+    public List<Item> saveAll(List<Item> items) {
+        List<Item> saved = itemRepository.saveAll(items);
+        itemSearchService.index(saved);
+        recordChanges(saved.stream().map(Item::getId).toList(), ChangeType.CREATED);
+        return saved;
     }
 
+    /**
+     * Replaces an existing item. Hibernate checks the version of the item on update, so the write fails if
+     * the item was changed since the expected version was read, or concurrently with this update.
+     *
+     * @param item            the new state of the item, carrying its ID
+     * @param expectedVersion the version the change was based on, or null to overwrite whatever version is current
+     * @return an Optional containing the updated item, or an empty Optional if the item does not exist
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the item has a different version
+     */
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.ITEMS_CACHE, key = "#item.id", unless = "#result == null")
+    public Optional<Item> update(Item item, Long expectedVersion) {
+        return itemRepository.findById(item.getId()).map(existing -> {
+            if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Item.class, item.getId());
+            }
+            item.setVersion(existing.getVersion());
+            boolean textChanged = textChanged(existing, item);
+            Item saved = itemRepository.save(item);
+            if (textChanged) {
+                itemSearchService.index(List.of(saved));
+            }
+            recordChanges(List.of(saved.getId()), updateType(saved.getStatus()));
+            return saved;
+        });
+    }
 
     /**
-     * Your Tasks
-     * Identify all concurrency and asynchronous programming issues in the code
-     * Fix the implementation to ensure:
-     * All items are properly processed before the CompletableFuture completes
-     * Thread safety for all shared state
-     * Proper error handling and propagation
-     * Efficient use of system resources
-     * Correct use of Spring's @Async annotation
-     * Add appropriate comments explaining your changes and why they fix the issues
-     * Write a brief explanation of what was wrong with the original implementation
+     * Updates the given items in a single transaction. The existing rows are loaded with one IN query,
+     * so merging the new state does not need a select per item; items that do not exist are skipped.
+     * An item carrying a version is only updated if that is still its current version; an item without
+     * one overwrites the current state. Only items whose name or description changed are indexed again,
+     * so processing runs, which only change the status, leave the search index alone.
      *
-     * Hints
-     * Consider how CompletableFuture composition can help coordinate multiple async operations
-     * Think about appropriate thread-safe collections
-     * Examine how errors are handled and propagated
-     * Consider the interaction between Spring's @Async and CompletableFuture
+     * @param items the items to be updated, each carrying its ID
+     * @return the items that existed and were updated, and the IDs of those skipped because of their version
      */
-    @Async
-    public List<Item> processItemsAsync() {
+    @Transactional
+    public ItemUpdateResult updateAll(List<Item> items) {
+        Map<Long, Item> existing = itemRepository.findAllById(items.stream().map(Item::getId).toList()).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Item> current = new ArrayList<>();
+        Set<Long> conflicts = new HashSet<>();
+        Set<Long> textChanged = new HashSet<>();
+        for (Item item : items) {
+            Item stored = existing.get(item.getId());
+            if (stored == null) {
+                continue;
+            }
+            if (item.getVersion() != null && !item.getVersion().equals(stored.getVersion())) {
+                conflicts.add(item.getId());
+                continue;
+            }
+            item.setVersion(stored.getVersion());
+            if (textChanged(stored, item)) {
+                textChanged.add(item.getId());
+            }
+            current.add(item);
+        }
+        evictFromCache(existing.keySet());
+        List<Item> updated = itemRepository.saveAll(current);
+        itemSearchService.index(updated.stream().filter(item -> textChanged.contains(item.getId())).toList());
+        updated.stream()
+                .collect(Collectors.groupingBy(item -> updateType(item.getStatus()),
+                        Collectors.mapping(Item::getId, Collectors.toList())))
+                .forEach((type, ids) -> recordChanges(ids, type));
+        return new ItemUpdateResult(updated, conflicts);
+    }
 
-        List<Long> itemIds = itemRepository.findAllIds();
+    /**
+     * Changes the status of the given items with a single UPDATE statement. The rows are neither read nor
+     * merged, which makes this the cheapest way to move items from one status to another.
+     *
+     * @param ids    the unique identifiers of the items to be updated
+     * @param status the new status
+     * @return the number of items that existed and were updated
+     */
+    @Transactional
+    public int updateStatus(Collection<Long> ids, String status) {
+        int updated = itemRepository.updateStatus(ids, status);
+        recordChanges(ids, updateType(status));
+        evictFromCache(ids);
+        return updated;
+    }
 
-        for (Long id : itemIds) {
-            CompletableFuture.runAsync(() -> {
-                try {
-                    Thread.sleep(100);
+    /**
+     * Changes the status of a single item without reading it first.
+     *
+     * @param id     the unique identifier of the item to be updated
+     * @param status the new status
+     * @return true if the item existed and was updated, false otherwise
+     */
+    @Transactional
+    public boolean updateStatus(Long id, String status) {
+        return updateStatus(List.of(id), status) > 0;
+    }
 
-                    Item item = itemRepository.findById(id).orElse(null);
-                    if (item == null) {
-                        return;
-                    }
+    /**
+     * Deletes the items with the given IDs with a single statement. IDs that do not exist are ignored.
+     *
+     * @param ids the unique identifiers of the items to be deleted
+     */
+    @Transactional
+    public void deleteAllById(List<Long> ids) {
+        // Recorded first, the log only gets entries for the rows that still exist; the single DELETE after it
+        // keeps the time between taking sequence numbers and committing short
+        recordChanges(ids, ChangeType.DELETED);
+        itemRepository.deleteAllByIdInBatch(ids);
+        evictFromCache(ids);
+    }
+
+    /**
+     * Asynchronous variant of {@link #deleteAllById(List)}, run in a transaction of its own on the
+     * {@code @Async} executor.
+     *
+     * @param ids the unique identifiers of the items to be deleted
+     * @return a future completed once the transaction has committed
+     */
+    @Async
+    @Transactional
+    public CompletableFuture<Void> deleteAllByIdAsync(List<Long> ids) {
+        deleteAllById(ids);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Deletes an item from the repository by its unique identifier.
+     *
+     * @param id the unique identifier of the item to be deleted
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ITEMS_CACHE, key = "#id")
+    public void deleteById(Long id) {
+        recordChanges(List.of(id), ChangeType.DELETED);
+        itemRepository.deleteById(id);
+    }
 
-                    processedCount.incrementAndGet(); //
+    /**
+     * Loads the items with the lowest IDs into the item cache, so that the first reads after startup
+     * are served from memory.
+     *
+     * @param limit the maximum number of items to load
+     * @return the items that were loaded
+     */
+    public List<Item> warmCache(int limit) {
+        List<Item> items = itemRepository.findPageAfter(Long.MIN_VALUE, Limit.of(limit));
+        Cache cache = cacheManager.getCache(CacheConfig.ITEMS_CACHE);
+        if (cache != null) {
+            items.forEach(item -> cache.put(item.getId(), item));
+        }
+        return items;
+    }
 
-                    item.setStatus("PROCESSED");
-                    itemRepository.save(item);
-                    processedItems.add(item);
-                } catch (InterruptedException e) {
-                    System.out.println("Error: " + e.getMessage());
-                }
-            }, executor);
+    /**
+     * Appends an entry to the change log for each of the given items that exists, and has the read model,
+     * if enabled, read them from the database until it applied the change. Called as the last statement of
+     * a write, so that the entries take their sequence numbers as close to the commit as possible: a reader
+     * must not see a later sequence number committed while this one is still pending.
+     */
+    private void recordChanges(Collection<Long> ids, ChangeType type) {
+        if (!ids.isEmpty()) {
+            itemChangeRepository.record(ids, type.name());
+            if (itemReadModel != null) {
+                itemReadModel.invalidate(ids);
+            }
         }
+    }
 
-        return processedItems;
+    /**
+     * Compares the fields of the search index, before the stored item is merged with the new state.
+     */
+    private static boolean textChanged(Item stored, Item item) {
+        return !Objects.equals(stored.getName(), item.getName())
+                || !Objects.equals(stored.getDescription(), item.getDescription());
     }
 
-}
+    /**
+     * Writes that leave an item processed are told apart from other updates, so that incremental processing
+     * does not pick up its own writes.
+     */
+    private static ChangeType updateType(String status) {
+        return ItemBatchProcessor.PROCESSED_STATUS.equals(status) ? ChangeType.PROCESSED : ChangeType.UPDATED;
+    }
 
+    /**
+     * Evicts the given items from the item cache. For writes that bypass the annotated methods, such as
+     * bulk statements and batch processing. Inside a transaction the eviction happens after commit.
+     *
+     * @param ids the unique identifiers of the changed items
+     */
+    public void evictFromCache(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(CacheConfig.ITEMS_CACHE);
+        if (cache != null) {
+            ids.forEach(cache::evict);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Outcome of updating several items at once.
+ *
+ * @param updated   the items that existed and were updated
+ * @param conflicts the IDs of the items that were skipped because they carried an outdated version
+ */
+public record ItemUpdateResult(List<Item> updated, Set<Long> conflicts) {
+}
@@ -0,0 +1,125 @@
+package com.siemens.internship.service;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from {@code long} keys to non-negative {@code int} values, without boxing either.
+ * Uses linear probing and backward-shift deletion, so lookups never have to skip tombstones.
+ * Not thread-safe; {@link ItemReadModel} guards it with its lock.
+ */
+final class LongIntHashMap {
+    private static final long FREE = Long.MIN_VALUE;
+    private static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * @return the value of the key, or -1 if the key is not in the map
+     */
+    int get(long key) {
+        // The reserved key would match the first free bucket
+        if (key == FREE) {
+            return MISSING;
+        }
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            if (keys[i] == FREE) {
+                return MISSING;
+            }
+        }
+    }
+
+    void put(long key, int value) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Key " + key + " is reserved");
+        }
+        int i = index(key);
+        while (keys[i] != FREE && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == FREE) {
+            keys[i] = key;
+            if (++size > keys.length * 3 / 4) {
+                values[i] = value;
+                rehash(keys.length << 1);
+                return;
+            }
+        }
+        values[i] = value;
+    }
+
+    /**
+     * @return the value the key had, or -1 if the key was not in the map
+     */
+    int remove(long key) {
+        if (key == FREE) {
+            return MISSING;
+        }
+        int i = index(key);
+        while (keys[i] != key) {
+            if (keys[i] == FREE) {
+                return MISSING;
+            }
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        size--;
+        // Move later entries of the probe sequence into the gap, so that no lookup stops at it too early
+        int gap = i;
+        for (int j = (gap + 1) & mask; keys[j] != FREE; j = (j + 1) & mask) {
+            int home = index(keys[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = FREE;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the bytes taken by the key and value arrays
+     */
+    long memoryBytes() {
+        return (long) keys.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    private int index(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.model.ChangeType;
+import com.siemens.internship.model.ChangeWindow;
+import com.siemens.internship.model.DeadLetter;
+import com.siemens.internship.model.ItemPage;
+import com.siemens.internship.model.JobStatus;
+import com.siemens.internship.model.ProcessingJob;
+import com.siemens.internship.model.ProcessingLease;
+import com.siemens.internship.repository.DeadLetterRepository;
+import com.siemens.internship.repository.ItemChangeRepository;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ProcessingJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs item processing as background jobs. Every run gets its own {@link ProcessingJob} record,
+ * which is the only place its progress is kept, so concurrent runs never share state.
+ * <p>
+ * A job is split into partitions that every node sharing the database can claim through
+ * {@link ProcessingLeaseService}: the node that started the job works on it until all partitions are done,
+ * while the other nodes poll for jobs with free partitions every
+ * {@link ItemProcessingProperties#getLeasePollInterval()} and help out. Adding nodes therefore adds throughput,
+ * and no item is processed by two nodes unless a lease expired.
+ * <p>
+ * Once a run has completed, later runs are incremental: they only process the items created or updated
+ * according to the item change log since the last completed run, which is their watermark. They start a little
+ * before it, so that changes which settled late are not skipped. Every completed run prunes the log entries that
+ * come before the overlap ahead of the oldest watermark still needed, so the log does not grow without limit.
+ */
+@Slf4j
+@Service
+public class ProcessingJobService {
+    @Autowired
+    private ProcessingJobRepository jobRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemChangeRepository itemChangeRepository;
+    @Autowired
+    private ItemChangeService itemChangeService;
+    @Autowired
+    private ItemBatchProcessor itemBatchProcessor;
+    @Autowired
+    private ProcessingLeaseService leaseService;
+    @Autowired
+    private ProcessingRunGuard runGuard;
+    @Autowired
+    private DeadLetterRepository deadLetterRepository;
+    @Autowired
+    private ItemProcessingProperties properties;
+    @Autowired
+    private TaskExecutor taskExecutor;
+
+    /**
+     * IDs of the jobs this node is working on.
+     */
+    private final Set<Long> activeJobs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * IDs of the active jobs whose cancellation was requested on this node. Such jobs stop after the chunk
+     * they are currently processing; other nodes see the persisted request before claiming their next partition.
+     */
+    private final Set<Long> cancelRequests = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService poller;
+
+    @PostConstruct
+    void startPolling() {
+        long intervalMillis = properties.getLeasePollInterval().toMillis();
+        if (intervalMillis <= 0) {
+            return;
+        }
+        poller = Executors.newSingleThreadScheduledExecutor();
+        poller.scheduleWithFixedDelay(this::pollForWork, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopPolling() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates a new processing job and schedules it for execution in the background. The job covers the
+     * settled change log up to now; unless a full run is requested, it only processes the items changed since
+     * the range covered by the last completed job, overlapping it by {@code item.changes.overlap}, or all items
+     * if no job has completed yet.
+     *
+     * @param full whether to process all items, regardless of what changed since the last run
+     * @return the newly queued job
+     * @throws com.siemens.internship.exception.ProcessingBusyException if another processing run is active
+     */
+    public ProcessingJob startJob(boolean full) {
+        ProcessingJob saved = runGuard.startJob(() -> {
+            ProcessingJob job = new ProcessingJob();
+            job.setUntilChange(itemChangeService.settledSeq());
+            if (!full) {
+                jobRepository.findFirstByStatusAndUntilChangeIsNotNullOrderByIdDesc(JobStatus.COMPLETED)
+                        .ifPresent(last -> job.setSinceChange(Math.min(
+                                itemChangeService.withOverlap(last.getUntilChange()), job.getUntilChange())));
+            }
+            job.setQueued(job.isIncremental()
+                    ? itemChangeRepository.countChangedItems(job.getSinceChange(), job.getUntilChange(),
+                            ChangeType.PROCESSABLE)
+                    : itemRepository.count());
+            return jobRepository.save(job);
+        });
+        taskExecutor.execute(() -> runJob(saved.getId()));
+        return saved;
+    }
+
+    /**
+     * Retrieves a processing job by its unique identifier.
+     *
+     * @param id the unique identifier of the job
+     * @return an Optional containing the job if it exists, or an empty Optional otherwise
+     */
+    public Optional<ProcessingJob> findById(Long id) {
+        return jobRepository.findById(id);
+    }
+
+    /**
+     * Retrieves one page of the items a job gave up on, using keyset pagination.
+     *
+     * @param id    the unique identifier of the job
+     * @param after the ID of the last dead letter of the previous page, or null to start from the beginning
+     * @param limit the maximum number of dead letters on the page
+     * @return an Optional containing the page, or an empty Optional if the job does not exist
+     */
+    public Optional<ItemPage<DeadLetter>> findDeadLetters(Long id, Long after, int limit) {
+        if (!jobRepository.existsById(id)) {
+            return Optional.empty();
+        }
+        List<DeadLetter> deadLetters = deadLetterRepository.findByJobIdAndIdGreaterThanOrderById(
+                id, after != null ? after : Long.MIN_VALUE, Limit.of(limit));
+        return Optional.of(ItemPage.of(deadLetters, limit, DeadLetter::getId));
+    }
+
+    /**
+     * Requests the cancellation of a job. Partitions processed on this node stop after their current chunk,
+     * those processed on other nodes after their current partition. A job this node does not work on has its
+     * unclaimed and expired partitions skipped, and is finished right away unless another node still holds one,
+     * so a job left behind by a node that went down no longer blocks new runs.
+     *
+     * @param id the unique identifier of the job
+     * @return an Optional containing the job as it was when the cancellation was requested,
+     *         or an empty Optional if the job does not exist
+     */
+    public Optional<ProcessingJob> cancel(Long id) {
+        return jobRepository.findById(id).map(job -> {
+            if (!job.getStatus().isFinished()) {
+                jobRepository.requestCancel(id);
+                if (activeJobs.contains(id)) {
+                    cancelRequests.add(id);
+                } else {
+                    leaseService.skipUnclaimed(id);
+                    finishIfDone(id);
+                }
+            }
+            return job;
+        });
+    }
+
+    /**
+     * Executes a job on the current thread: splits it into partitions, processes every partition it can claim
+     * and then waits for the partitions claimed by other nodes, taking them over if their leases expire.
+     * Returns once the job is finished.
+     *
+     * @param id the unique identifier of the job to run
+     */
+    void runJob(Long id) {
+        activeJobs.add(id);
+        try {
+            if (!jobRepository.findById(id).orElseThrow().isCancelRequested()) {
+                leaseService.plan(id);
+                jobRepository.markStarted(id, Instant.now(), JobStatus.QUEUED, JobStatus.RUNNING);
+            }
+            long waitMillis = Math.max(1, properties.getLeaseDuration().toMillis() / 3);
+            while (true) {
+                workOn(id);
+                if (jobRepository.findById(id).orElseThrow().isCancelRequested()) {
+                    leaseService.skipUnclaimed(id);
+                }
+                if (finishIfDone(id)) {
+                    break;
+                }
+                Thread.sleep(waitMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Stopped waiting for job {}; the other nodes will finish it", id);
+        } catch (RuntimeException e) {
+            log.error("Job {} failed", id, e);
+            jobRepository.finish(id, JobStatus.FAILED, Instant.now(), e.getMessage());
+        } finally {
+            activeJobs.remove(id);
+            cancelRequests.remove(id);
+        }
+    }
+
+    /**
+     * Looks for jobs with free partitions and works on each of them in the background,
+     * unless this node already does.
+     */
+    void pollForWork() {
+        List<Long> jobIds;
+        try {
+            jobIds = leaseService.findClaimableJobIds();
+        } catch (RuntimeException e) {
+            log.warn("Could not look for processing work", e);
+            return;
+        }
+        for (Long id : jobIds) {
+            if (activeJobs.add(id)) {
+                taskExecutor.execute(() -> {
+                    try {
+                        workOn(id);
+                    } catch (RuntimeException e) {
+                        log.error("Helping with job {} failed", id, e);
+                    } finally {
+                        activeJobs.remove(id);
+                        cancelRequests.remove(id);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Claims and processes partitions of a job until none is free, or processing on this node shuts down.
+     */
+    private void workOn(Long id) {
+        Optional<ProcessingLease> lease;
+        while (!cancelRequests.contains(id) && (lease = leaseService.claimNext(id)).isPresent()) {
+            if (!processPartition(lease.get())) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Processes a partition from its checkpoint on, recording a new checkpoint whenever the run gets further.
+     * Every checkpoint adds the items done since the previous one to the counters of the partition and the job,
+     * so the progress of a job moves while its partitions run. Items done after the last checkpoint of an
+     * earlier owner were never counted, so items are counted once even if the partition was taken over.
+     * If processing shuts down meanwhile, the lease is released from the last checkpoint on for another node.
+     *
+     * @return false if the partition was given back because processing shut down
+     */
+    private boolean processPartition(ProcessingLease lease) {
+        Long id = lease.getJobId();
+        ChangeWindow changes = jobRepository.findById(id).orElseThrow().changeWindow();
+        long firstId = lease.getCheckpointId() != null ? lease.getCheckpointId() + 1 : lease.getFirstId();
+        if (lease.getCheckpointId() != null) {
+            log.info("Resuming partition {} of job {} after item {}", lease.getId(), id, lease.getCheckpointId());
+        }
+        AtomicReference<String> error = new AtomicReference<>();
+        AtomicBoolean lost = new AtomicBoolean();
+        AtomicBoolean withdrawn = new AtomicBoolean();
+        // Counters of this run already added to the partition and the job; checkpoints arrive one at a time
+        AtomicLong recordedProcessed = new AtomicLong();
+        AtomicLong recordedFailed = new AtomicLong();
+        BatchRunStats stats;
+        try {
+            stats = itemBatchProcessor.processRange(id, changes, firstId, lease.getLastId(), new ChunkListener() {
+                @Override
+                public void onChunkProcessed(List<Long> ids, int processed, int failed) {
+                }
+
+                @Override
+                public void onChunkFailed(List<Long> ids, RuntimeException cause) {
+                    error.set(cause.getMessage());
+                }
+
+                @Override
+                public void onChunkWithdrawn(List<Long> ids) {
+                    withdrawn.set(true);
+                }
+
+                @Override
+                public void onCheckpoint(long checkpointId, long processed, long failed) {
+                    try {
+                        if (leaseService.checkpoint(lease, checkpointId, processed - recordedProcessed.get(),
+                                failed - recordedFailed.get())) {
+                            recordedProcessed.set(processed);
+                            recordedFailed.set(failed);
+                        } else {
+                            log.warn("Partition {} of job {} was taken over, stopping", lease.getId(), id);
+                            lost.set(true);
+                        }
+                    } catch (RuntimeException e) {
+                        log.warn("Could not record the checkpoint of partition {}: {}", lease.getId(), e.getMessage());
+                    }
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return lost.get() || cancelRequests.contains(id);
+                }
+            });
+        } catch (RuntimeException e) {
+            leaseService.release(lease);
+            throw e;
+        }
+        if (withdrawn.get()) {
+            log.warn("Processing shut down during partition {} of job {}, giving it back", lease.getId(), id);
+            leaseService.release(lease);
+            return false;
+        }
+        if (leaseService.complete(lease, stats.items() - recordedProcessed.get(),
+                stats.failed() - recordedFailed.get(), error.get())) {
+            log.info("Node {} processed partition {} of job {}: {} items ({} failed) at {} items/s",
+                    leaseService.getNodeId(), lease.getId(), id, stats.items(), stats.failed(),
+                    String.format("%.1f", stats.itemsPerSecond()));
+            finishIfDone(id);
+        }
+        return true;
+    }
+
+    /**
+     * Finishes a job once all of its partitions are done, whichever node completed the last one.
+     *
+     * @return whether the job is finished
+     */
+    private boolean finishIfDone(Long id) {
+        if (!leaseService.isDone(id)) {
+            return false;
+        }
+        ProcessingJob job = jobRepository.findById(id).orElseThrow();
+        if (job.getFinishedAt() == null) {
+            JobStatus status = job.isCancelRequested() ? JobStatus.CANCELLED : JobStatus.COMPLETED;
+            if (jobRepository.finish(id, status, Instant.now(), null) == 1 && status == JobStatus.COMPLETED) {
+                pruneChangeLog();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deletes the change log entries no incremental run reads anymore: those before the overlap ahead of the
+     * watermark of the last completed job, or of the range of an unfinished one if that starts earlier.
+     * A failure is only logged, the entries are pruned after the next completed job.
+     */
+    private void pruneChangeLog() {
+        try {
+            Optional<ProcessingJob> last =
+                    jobRepository.findFirstByStatusAndUntilChangeIsNotNullOrderByIdDesc(JobStatus.COMPLETED);
+            if (last.isEmpty()) {
+                return;
+            }
+            long needed = last.get().getUntilChange();
+            Long unfinished = jobRepository.findOldestChangeOfUnfinishedJobs();
+            if (unfinished != null) {
+                needed = Math.min(needed, unfinished);
+            }
+            int pruned = itemChangeService.pruneBefore(needed);
+            log.info("Pruned {} item changes before the overlap ahead of change {}", pruned, needed);
+        } catch (RuntimeException e) {
+            log.warn("Could not prune the item change log", e);
+        }
+    }
+}
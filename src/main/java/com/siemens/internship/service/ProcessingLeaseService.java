@@ -0,0 +1,253 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.model.ChangeType;
+import com.siemens.internship.model.ChangeWindow;
+import com.siemens.internship.model.ProcessingLease;
+import com.siemens.internship.repository.ItemChangeRepository;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ProcessingJobRepository;
+import com.siemens.internship.repository.ProcessingLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.PrimitiveIterator;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Splits processing jobs into partitions and hands them out to the nodes sharing the database.
+ * <p>
+ * A node claims a partition with a conditional UPDATE on its lease row and keeps the lease alive with a
+ * heartbeat every third of {@link ItemProcessingProperties#getLeaseDuration()}. If a node dies, its leases
+ * expire and the partitions are claimed by the remaining nodes. Only the node holding a lease may record the
+ * progress of its partition and add it to the counters of the job, so a partition that was taken over is
+ * counted once.
+ */
+@Slf4j
+@Service
+public class ProcessingLeaseService {
+    private static final int CLAIM_CANDIDATES = 16;
+
+    @Autowired
+    private ProcessingLeaseRepository leaseRepository;
+    @Autowired
+    private ProcessingJobRepository jobRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemChangeRepository itemChangeRepository;
+    @Autowired
+    private ItemProcessingProperties properties;
+
+    @Getter
+    private String nodeId;
+    private final AtomicInteger heldLeases = new AtomicInteger();
+    private ScheduledExecutorService heartbeat;
+
+    @PostConstruct
+    void startHeartbeat() {
+        nodeId = properties.getNodeId() != null ? properties.getNodeId() : defaultNodeId();
+        long intervalMillis = Math.max(1, properties.getLeaseDuration().toMillis() / 3);
+        heartbeat = Executors.newSingleThreadScheduledExecutor();
+        heartbeat.scheduleAtFixedRate(this::renewLeases, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Processing node {} renews its leases every {} ms", nodeId, intervalMillis);
+    }
+
+    @PreDestroy
+    void stopHeartbeat() {
+        heartbeat.shutdownNow();
+    }
+
+    /**
+     * Splits a job into partitions of {@link ItemProcessingProperties#getPartitionSize()} item IDs,
+     * unless it has been split already. An incremental job is split by the IDs of the items changed in its
+     * range of the change log, so its partitions only span those items.
+     *
+     * @param jobId the ID of the job
+     * @return the number of items in the partitions created, or 0 if the job was split before
+     */
+    @Transactional
+    public long plan(Long jobId) {
+        if (leaseRepository.existsByJobId(jobId)) {
+            return 0;
+        }
+        ChangeWindow changes = jobRepository.findById(jobId).orElseThrow().changeWindow();
+        List<ProcessingLease> leases = new ArrayList<>();
+        long items = 0;
+        if (changes != null) {
+            try (Stream<Long> ids = itemChangeRepository.streamChangedItemIds(changes.since(), changes.until(),
+                    ChangeType.PROCESSABLE)) {
+                PrimitiveIterator.OfLong iterator = ids.mapToLong(Long::longValue).iterator();
+                int partitionSize = properties.getPartitionSize();
+                while (iterator.hasNext()) {
+                    long first = iterator.nextLong();
+                    long last = first;
+                    int count = 1;
+                    while (count < partitionSize && iterator.hasNext()) {
+                        last = iterator.nextLong();
+                        count++;
+                    }
+                    leases.add(new ProcessingLease(jobId, first, last));
+                    items += count;
+                }
+            }
+        } else {
+            long after = Long.MIN_VALUE;
+            List<Long> ids;
+            while (!(ids = itemRepository.findIdsAfter(after, Limit.of(properties.getPartitionSize()))).isEmpty()) {
+                after = ids.get(ids.size() - 1);
+                leases.add(new ProcessingLease(jobId, ids.get(0), after));
+                items += ids.size();
+            }
+        }
+        leaseRepository.saveAll(leases);
+        log.info("Job {} was split into {} partitions of up to {} items",
+                jobId, leases.size(), properties.getPartitionSize());
+        return items;
+    }
+
+    /**
+     * Claims a free partition of a job for this node. Candidates are tried in random order, so that nodes
+     * claiming at the same time rarely compete for the same row.
+     *
+     * @param jobId the ID of the job
+     * @return the claimed partition, or an empty Optional if none is free
+     */
+    public Optional<ProcessingLease> claimNext(Long jobId) {
+        Instant now = Instant.now();
+        List<Long> candidates = new ArrayList<>(
+                leaseRepository.findClaimableIds(jobId, now, Limit.of(CLAIM_CANDIDATES)));
+        Collections.shuffle(candidates);
+        for (Long id : candidates) {
+            try {
+                if (leaseRepository.claim(id, nodeId, now, now.plus(properties.getLeaseDuration())) == 1) {
+                    heldLeases.incrementAndGet();
+                    return leaseRepository.findById(id);
+                }
+            } catch (DataAccessException e) {
+                log.debug("Lost the race for partition {}: {}", id, e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Marks a partition claimed by this node done and adds the outcome since its last checkpoint to the
+     * counters of the partition and of the job, in one transaction. If the lease was taken over in the meantime,
+     * nothing is recorded.
+     *
+     * @param lease     the partition
+     * @param processed the number of items processed since the last checkpoint
+     * @param failed    the number of items failed since the last checkpoint
+     * @param error     the last error, or null
+     * @return whether the outcome was recorded
+     */
+    @Transactional
+    public boolean complete(ProcessingLease lease, long processed, long failed, String error) {
+        heldLeases.decrementAndGet();
+        if (leaseRepository.complete(lease.getId(), nodeId, processed, failed) == 0) {
+            log.warn("Partition {} of job {} was taken over before it completed", lease.getId(), lease.getJobId());
+            return false;
+        }
+        jobRepository.addProgress(lease.getJobId(), processed, failed, error);
+        return true;
+    }
+
+    /**
+     * Records how far this node has got with a partition, so that a node taking it over resumes from there,
+     * and adds the items done since the previous checkpoint to the counters of the partition and of the job,
+     * in one transaction. The progress of a job therefore moves with every checkpoint, not only once a
+     * partition completes.
+     *
+     * @param lease        the partition
+     * @param checkpointId the ID up to which every item of the partition is done
+     * @param processed    the number of items of the partition processed since the previous checkpoint
+     * @param failed       the number of items of the partition failed since the previous checkpoint
+     * @return whether this node still holds the lease; if not, nothing is recorded
+     */
+    @Transactional
+    public boolean checkpoint(ProcessingLease lease, long checkpointId, long processed, long failed) {
+        if (leaseRepository.checkpoint(lease.getId(), nodeId, checkpointId, processed, failed) == 0) {
+            return false;
+        }
+        jobRepository.addProgress(lease.getJobId(), processed, failed, null);
+        return true;
+    }
+
+    /**
+     * Gives a partition claimed by this node back without completing it, so that any node can claim it again.
+     *
+     * @param lease the partition
+     */
+    public void release(ProcessingLease lease) {
+        heldLeases.decrementAndGet();
+        leaseRepository.release(lease.getId(), nodeId);
+    }
+
+    /**
+     * Marks the partitions of a job done that no node is working on.
+     *
+     * @param jobId the ID of the job
+     */
+    public void skipUnclaimed(Long jobId) {
+        leaseRepository.skipUnclaimed(jobId, Instant.now());
+    }
+
+    /**
+     * @param jobId the ID of the job
+     * @return whether every partition of the job is done
+     */
+    public boolean isDone(Long jobId) {
+        return leaseRepository.countByJobIdAndDoneFalse(jobId) == 0;
+    }
+
+    /**
+     * @return the IDs of the unfinished jobs with partitions free to claim
+     */
+    public List<Long> findClaimableJobIds() {
+        return leaseRepository.findClaimableJobIds(Instant.now());
+    }
+
+    /**
+     * Extends the leases of this node. Skipped while it holds none, so an idle node does not touch the database.
+     */
+    void renewLeases() {
+        if (heldLeases.get() <= 0) {
+            return;
+        }
+        try {
+            leaseRepository.renew(nodeId, Instant.now().plus(properties.getLeaseDuration()));
+        } catch (RuntimeException e) {
+            log.warn("Could not renew the leases of node {}", nodeId, e);
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
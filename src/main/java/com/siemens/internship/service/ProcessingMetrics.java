@@ -0,0 +1,176 @@
+package com.siemens.internship.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Micrometer meters of the item processing pipeline:
+ * <ul>
+ *     <li>{@code item.processing.items} - items processed or failed, tagged by {@code outcome}</li>
+ *     <li>{@code item.processing.chunk} - duration of one chunk transaction</li>
+ *     <li>{@code item.processing.item} - processing time per item, i.e. chunk duration divided by its size</li>
+ *     <li>{@code item.processing.chunks.in.flight} - chunks submitted and not yet finished</li>
+ *     <li>{@code item.processing.chunk.retries} - chunk transactions retried after a write conflict</li>
+ *     <li>{@code item.processing.item.retries} - single items retried after a failure</li>
+ *     <li>{@code item.processing.dead.letters} - items given up on and recorded as dead letters</li>
+ *     <li>{@code executor.*} with {@code name=item.processing} - queue depth and active threads of the executor</li>
+ *     <li>{@code item.processing.stage.items} - items passed on or rejected by a pipeline stage, tagged by
+ *     {@code stage} and {@code outcome}; its rate is the throughput of the stage</li>
+ *     <li>{@code item.processing.stage.chunk} - time a pipeline stage spends on one chunk, tagged by {@code stage}</li>
+ *     <li>{@code item.processing.stage.queue} - chunks waiting for a pipeline stage, tagged by {@code stage}</li>
+ *     <li>{@code item.processing.stage.busy} - workers of a pipeline stage busy with a chunk, tagged by {@code stage}</li>
+ * </ul>
+ */
+@Component
+public class ProcessingMetrics {
+    private static final String PREFIX = "item.processing";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter processed;
+    private final Counter failed;
+    private final Counter retries;
+    private final Counter itemRetries;
+    private final Counter deadLetters;
+    private final Timer chunkTimer;
+    private final Timer itemTimer;
+    private final AtomicInteger chunksInFlight = new AtomicInteger();
+    private final Map<String, StageMeters> stages = new ConcurrentHashMap<>();
+
+    private record StageMeters(Counter passed, Counter rejected, Timer chunkTimer) {
+    }
+
+    @Autowired
+    public ProcessingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.processed = Counter.builder(PREFIX + ".items")
+                .description("Items processed by processing runs")
+                .tag("outcome", "processed")
+                .register(meterRegistry);
+        this.failed = Counter.builder(PREFIX + ".items")
+                .description("Items processed by processing runs")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        this.retries = Counter.builder(PREFIX + ".chunk.retries")
+                .description("Chunk transactions retried after a write conflict")
+                .register(meterRegistry);
+        this.itemRetries = Counter.builder(PREFIX + ".item.retries")
+                .description("Single items retried after a failure")
+                .register(meterRegistry);
+        this.deadLetters = Counter.builder(PREFIX + ".dead.letters")
+                .description("Items given up on and recorded as dead letters")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder(PREFIX + ".chunk")
+                .description("Duration of one chunk transaction")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.itemTimer = Timer.builder(PREFIX + ".item")
+                .description("Processing time per item, averaged over its chunk")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder(PREFIX + ".chunks.in.flight", chunksInFlight, AtomicInteger::get)
+                .description("Chunks submitted to the executor and not yet finished")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Wraps the processing executor so its queue depth, active threads and task timings are published.
+     *
+     * @param executor the executor to be monitored
+     * @return the monitored executor, to be used instead of the original one
+     */
+    public ExecutorService monitor(ExecutorService executor) {
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, PREFIX);
+    }
+
+    public void chunkSubmitted() {
+        chunksInFlight.incrementAndGet();
+    }
+
+    public void chunkProcessed(int items, long nanos) {
+        chunksInFlight.decrementAndGet();
+        processed.increment(items);
+        chunkTimer.record(nanos, TimeUnit.NANOSECONDS);
+        if (items > 0) {
+            itemTimer.record(nanos / items, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void chunkRetried() {
+        retries.increment();
+    }
+
+    public void itemRetried() {
+        itemRetries.increment();
+    }
+
+    public void deadLettered(int items) {
+        deadLetters.increment(items);
+    }
+
+    /**
+     * Counts items of a chunk that a pipeline stage rejected, so they are reported as failed.
+     */
+    public void itemsRejected(int items) {
+        failed.increment(items);
+    }
+
+    /**
+     * Registers the meters of a pipeline stage.
+     *
+     * @param stage the name of the stage
+     * @param queue the input queue of the stage
+     * @param busy  the number of workers of the stage busy with a chunk
+     */
+    public void registerStage(String stage, Collection<?> queue, AtomicInteger busy) {
+        stages.put(stage, new StageMeters(
+                Counter.builder(PREFIX + ".stage.items")
+                        .description("Items handled by a pipeline stage")
+                        .tags("stage", stage, "outcome", "passed")
+                        .register(meterRegistry),
+                Counter.builder(PREFIX + ".stage.items")
+                        .description("Items handled by a pipeline stage")
+                        .tags("stage", stage, "outcome", "rejected")
+                        .register(meterRegistry),
+                Timer.builder(PREFIX + ".stage.chunk")
+                        .description("Time a pipeline stage spends on one chunk")
+                        .tag("stage", stage)
+                        .register(meterRegistry)));
+        Gauge.builder(PREFIX + ".stage.queue", queue, Collection::size)
+                .description("Chunks waiting for a pipeline stage")
+                .tag("stage", stage)
+                .register(meterRegistry);
+        Gauge.builder(PREFIX + ".stage.busy", busy, AtomicInteger::get)
+                .description("Workers of a pipeline stage busy with a chunk")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    public void stageChunk(String stage, int passed, int rejected, long nanos) {
+        StageMeters meters = stages.get(stage);
+        meters.passed().increment(passed);
+        meters.rejected().increment(rejected);
+        meters.chunkTimer().record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void chunkRejected() {
+        chunksInFlight.decrementAndGet();
+    }
+
+    public void chunkFailed(int items, long nanos) {
+        chunksInFlight.decrementAndGet();
+        failed.increment(items);
+        chunkTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,192 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.DeadLetter;
+import com.siemens.internship.model.Item;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A staged, event-driven pipeline that chunks of items flow through. Every stage has its own worker threads
+ * and a bounded input queue: a worker takes a chunk, runs the stage on it and puts it into the queue of the
+ * next stage, waiting while that queue is full. A slow stage thus holds back the stages in front of it
+ * instead of letting chunks pile up, and it can be given more threads without giving them to the others.
+ * <p>
+ * A chunk that a stage fails on leaves the pipeline right away; a chunk that passes the last stage completes.
+ * Chunks that have not made it through when the pipeline shuts down are withdrawn instead: whatever a stage did
+ * to them may be incomplete, and the interrupted stage fails them for that reason alone.
+ */
+@Slf4j
+final class ProcessingPipeline {
+    private final List<Stage> stages = new ArrayList<>();
+    private final ProcessingMetrics metrics;
+    private volatile boolean shutDown;
+
+    /**
+     * Work done by a stage on a chunk. Throwing anything, errors included, fails the whole chunk.
+     */
+    @FunctionalInterface
+    interface StageHandler {
+        void handle(Chunk chunk);
+    }
+
+    /**
+     * Receives the outcome of a chunk, on the thread of the stage that finished it. Exactly one method is
+     * called per chunk.
+     */
+    interface ChunkCallback {
+        void completed(Chunk chunk);
+
+        void failed(Chunk chunk, String stage, RuntimeException cause);
+
+        /**
+         * Called for a chunk the pipeline gave up on because it was shut down. The chunk may have been
+         * partially processed, and is to be processed again.
+         */
+        void withdrawn(Chunk chunk);
+    }
+
+    /**
+     * A chunk on its way through the pipeline. It is only ever touched by one stage at a time.
+     */
+    static final class Chunk {
+        final Long jobId;
+        final List<Long> ids;
+        final long startNanos = System.nanoTime();
+        private final ChunkCallback callback;
+        List<Item> items = List.of();
+        int processed;
+        final List<DeadLetter> deadLetters = new ArrayList<>();
+
+        Chunk(Long jobId, List<Long> ids, ChunkCallback callback) {
+            this.jobId = jobId;
+            this.ids = ids;
+            this.callback = callback;
+        }
+    }
+
+    private static final class Stage {
+        final String name;
+        final int threads;
+        final BlockingQueue<Chunk> queue;
+        final StageHandler handler;
+        final AtomicInteger busy = new AtomicInteger();
+        ExecutorService workers;
+
+        Stage(String name, int threads, int queueCapacity, StageHandler handler) {
+            this.name = name;
+            this.threads = threads;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.handler = handler;
+        }
+    }
+
+    ProcessingPipeline(ProcessingMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Appends a stage. Must be called before {@link #start()}.
+     */
+    ProcessingPipeline stage(String name, int threads, int queueCapacity, StageHandler handler) {
+        stages.add(new Stage(name, Math.max(1, threads), Math.max(1, queueCapacity), handler));
+        return this;
+    }
+
+    void start() {
+        for (int i = 0; i < stages.size(); i++) {
+            Stage stage = stages.get(i);
+            Stage next = i + 1 < stages.size() ? stages.get(i + 1) : null;
+            metrics.registerStage(stage.name, stage.queue, stage.busy);
+            stage.workers = Executors.newFixedThreadPool(stage.threads);
+            for (int t = 0; t < stage.threads; t++) {
+                stage.workers.execute(() -> work(stage, next));
+            }
+            log.info("Processing stage {} runs on {} threads with room for {} chunks",
+                    stage.name, stage.threads, stage.queue.remainingCapacity());
+        }
+    }
+
+    /**
+     * Stops all workers and withdraws the chunks that are still queued, so no run waits for them forever.
+     */
+    void shutdown() {
+        shutDown = true;
+        stages.forEach(stage -> stage.workers.shutdownNow());
+        for (Stage stage : stages) {
+            Chunk chunk;
+            while ((chunk = stage.queue.poll()) != null) {
+                chunk.callback.withdrawn(chunk);
+            }
+        }
+    }
+
+    /**
+     * Hands a chunk to the first stage, waiting while its queue is full. Once the pipeline is shut down,
+     * the chunk is withdrawn right away.
+     *
+     * @throws InterruptedException if interrupted while waiting; the chunk was not submitted then
+     */
+    void submit(Chunk chunk) throws InterruptedException {
+        BlockingQueue<Chunk> queue = stages.get(0).queue;
+        if (!shutDown) {
+            queue.put(chunk);
+            // A shutdown that drained the queue before the put would leave the chunk behind
+            if (!shutDown || !queue.remove(chunk)) {
+                return;
+            }
+        }
+        chunk.callback.withdrawn(chunk);
+    }
+
+    private void work(Stage stage, Stage next) {
+        while (!Thread.currentThread().isInterrupted()) {
+            Chunk chunk;
+            try {
+                chunk = stage.queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            stage.busy.incrementAndGet();
+            long start = System.nanoTime();
+            int rejectedBefore = chunk.deadLetters.size();
+            Throwable failure = null;
+            try {
+                stage.handler.handle(chunk);
+            } catch (Throwable e) {
+                // Errors too: a worker that died would never release the chunk, and its run would wait forever
+                failure = e;
+            } finally {
+                stage.busy.decrementAndGet();
+            }
+            if (shutDown || Thread.currentThread().isInterrupted()) {
+                chunk.callback.withdrawn(chunk);
+                return;
+            }
+            if (failure != null) {
+                metrics.stageChunk(stage.name, 0, chunk.items.size(), System.nanoTime() - start);
+                chunk.callback.failed(chunk, stage.name, failure instanceof RuntimeException e ? e
+                        : new IllegalStateException("Stage " + stage.name + " failed with " + failure, failure));
+                continue;
+            }
+            metrics.stageChunk(stage.name, chunk.items.size(), chunk.deadLetters.size() - rejectedBefore,
+                    System.nanoTime() - start);
+            if (next == null) {
+                chunk.callback.completed(chunk);
+                continue;
+            }
+            try {
+                next.queue.put(chunk);
+            } catch (InterruptedException e) {
+                chunk.callback.withdrawn(chunk);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.exception.ProcessingBusyException;
+import com.siemens.internship.model.ProcessingJob;
+import com.siemens.internship.repository.ProcessingJobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Supplier;
+
+/**
+ * Makes sure only one processing run is active at a time. Two runs over the same items would only compete
+ * for the executor, the connection pool and the same rows, so a second run is rejected instead of started.
+ * <p>
+ * Jobs are seen cluster-wide through the database, where a single-row lock makes checking for an active run and
+ * creating a job atomic across nodes. Streamed runs are only seen on the node they run on.
+ */
+@Component
+public class ProcessingRunGuard {
+    static final long MAX_RETRY_AFTER_SECONDS = 60;
+
+    @Autowired
+    private ProcessingJobRepository jobRepository;
+
+    private boolean streamedRun;
+
+    /**
+     * Checks that no processing run is active.
+     *
+     * @throws ProcessingBusyException if an unfinished job exists or a streamed run is in progress
+     */
+    public synchronized void ensureIdle() {
+        if (streamedRun) {
+            throw new ProcessingBusyException("A streamed processing run is in progress", null, 1);
+        }
+        jobRepository.findFirstByFinishedAtIsNullOrderByIdDesc().ifPresent(job -> {
+            throw new ProcessingBusyException("Processing job " + job.getId() + " is in progress",
+                    job.getId(), retryAfter(job));
+        });
+    }
+
+    /**
+     * Creates a job unless a processing run is active. The check and the creation happen in one transaction
+     * holding the processing run lock row, so concurrent requests, on this node or on others, cannot both
+     * start a job: the later one waits for the earlier to commit and then sees its job.
+     *
+     * @param creator creates and saves the job
+     * @return the created job
+     * @throws ProcessingBusyException if a processing run is active, or another node kept the lock too long
+     */
+    @Transactional
+    public synchronized ProcessingJob startJob(Supplier<ProcessingJob> creator) {
+        try {
+            jobRepository.lockRuns();
+        } catch (PessimisticLockingFailureException e) {
+            throw new ProcessingBusyException("Another node is starting a processing run", null, 1);
+        }
+        ensureIdle();
+        return creator.get();
+    }
+
+    /**
+     * Registers a streamed run unless a processing run is active. Must be paired with
+     * {@link #finishStreamedRun()}.
+     *
+     * @throws ProcessingBusyException if a processing run is active
+     */
+    public synchronized void startStreamedRun() {
+        ensureIdle();
+        streamedRun = true;
+    }
+
+    public synchronized void finishStreamedRun() {
+        streamedRun = false;
+    }
+
+    /**
+     * Suggests retrying once the job is expected to finish, within one second and one minute.
+     */
+    private static long retryAfter(ProcessingJob job) {
+        Long eta = job.getEtaSeconds();
+        return eta == null ? 1 : Math.max(1, Math.min(MAX_RETRY_AFTER_SECONDS, eta));
+    }
+}
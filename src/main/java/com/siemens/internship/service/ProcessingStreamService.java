@@ -0,0 +1,130 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.model.ProcessingEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs processing while streaming its progress to a client.
+ * <p>
+ * The run and the client are decoupled by a bounded queue of {@link ItemProcessingProperties#getStreamBufferSize()}
+ * events. When the client reads slower than items are processed, the queue fills up and the chunk workers block
+ * while reporting their chunk, which holds their permits and stops new chunks from being started. A slow client
+ * therefore throttles processing instead of letting events pile up on the heap.
+ */
+@Slf4j
+@Service
+public class ProcessingStreamService {
+    private static final long POLL_MILLIS = 100;
+
+    @Autowired
+    private ItemBatchProcessor itemBatchProcessor;
+    @Autowired
+    private ProcessingRunGuard runGuard;
+    @Autowired
+    private ItemProcessingProperties properties;
+    @Autowired
+    private TaskExecutor taskExecutor;
+
+    /**
+     * Receives the events of a streamed run. Writing may block, which applies backpressure to the run.
+     */
+    @FunctionalInterface
+    public interface EventSink {
+        void write(ProcessingEvent event) throws IOException;
+    }
+
+    /**
+     * Processes all items in the background and hands every progress event to the sink on the calling thread,
+     * followed by a final {@code completed} event. If the sink fails, e.g. because the client went away,
+     * the run is cancelled and the failure is rethrown once the chunks in flight have finished.
+     *
+     * @param sink the sink receiving the events
+     * @throws IOException if the sink fails
+     * @throws com.siemens.internship.exception.ProcessingBusyException if another processing run is active
+     */
+    public void streamRun(EventSink sink) throws IOException {
+        runGuard.startStreamedRun();
+        try {
+            run(sink);
+        } finally {
+            runGuard.finishStreamedRun();
+        }
+    }
+
+    private void run(EventSink sink) throws IOException {
+        BlockingQueue<ProcessingEvent> events = new ArrayBlockingQueue<>(properties.getStreamBufferSize());
+        QueueingListener listener = new QueueingListener(events);
+        CompletableFuture<BatchRunStats> run = CompletableFuture.supplyAsync(
+                () -> itemBatchProcessor.processAll(listener), taskExecutor::execute);
+
+        try {
+            while (true) {
+                ProcessingEvent event = events.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (event != null) {
+                    sink.write(event);
+                } else if (run.isDone() && events.isEmpty()) {
+                    break;
+                }
+            }
+            BatchRunStats stats = run.join();
+            sink.write(new ProcessingEvent(ProcessingEvent.COMPLETED, null, null, stats.items(), stats.failed()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            listener.cancelled = true;
+        } catch (IOException | RuntimeException e) {
+            log.info("Stopping streamed processing run: {}", e.getMessage());
+            listener.cancelled = true;
+            run.exceptionally(ex -> null).join();
+            throw e;
+        }
+    }
+
+    /**
+     * Puts the chunk outcomes into the bounded queue, waiting for space unless the run was cancelled.
+     */
+    private static class QueueingListener implements ChunkListener {
+        private final BlockingQueue<ProcessingEvent> events;
+        private volatile boolean cancelled;
+
+        QueueingListener(BlockingQueue<ProcessingEvent> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void onChunkProcessed(List<Long> ids, int processed, int failed) {
+            put(new ProcessingEvent(ProcessingEvent.CHUNK, ids.get(0), ids.get(ids.size() - 1), processed, failed));
+        }
+
+        @Override
+        public void onChunkFailed(List<Long> ids, RuntimeException cause) {
+            put(new ProcessingEvent(ProcessingEvent.FAILED, ids.get(0), ids.get(ids.size() - 1), 0, ids.size()));
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void put(ProcessingEvent event) {
+            try {
+                while (!cancelled && !events.offer(event, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    // The client is behind: keep this worker, and with it its chunk permit, waiting
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelled = true;
+            }
+        }
+    }
+}
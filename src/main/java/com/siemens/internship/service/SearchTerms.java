@@ -0,0 +1,57 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Splits text into the terms of the item search index: runs of letters and digits, lower-cased and stripped
+ * of accents, so that "Café" is found by "cafe". Indexed text and search queries go through the same steps.
+ */
+final class SearchTerms {
+    /**
+     * Length of the term column; longer terms are cut, in the index and in queries alike.
+     */
+    static final int MAX_LENGTH = 64;
+    /**
+     * How much more an occurrence in the name counts than one in the description.
+     */
+    static final int NAME_WEIGHT = 3;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private SearchTerms() {
+    }
+
+    /**
+     * @return the terms of the text in order of occurrence, with repetitions; empty for null
+     */
+    static List<String> of(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return SEPARATORS.splitAsStream(folded)
+                .filter(term -> !term.isEmpty())
+                .map(term -> term.length() > MAX_LENGTH ? term.substring(0, MAX_LENGTH) : term)
+                .toList();
+    }
+
+    /**
+     * @return the weight of every term of the item, counting each occurrence in the name {@link #NAME_WEIGHT}
+     *         times and each one in the description once
+     */
+    static Map<String, Integer> weights(Item item) {
+        Map<String, Integer> weights = new HashMap<>();
+        of(item.getName()).forEach(term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+        of(item.getDescription()).forEach(term -> weights.merge(term, 1, Integer::sum));
+        return weights;
+    }
+}
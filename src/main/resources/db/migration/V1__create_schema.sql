@@ -0,0 +1,47 @@
+-- Schema of the item store and the processing job tables, matching the JPA mappings.
+-- Hibernate only validates it; every later change needs a new migration.
+
+CREATE SEQUENCE item_seq START WITH 1 INCREMENT BY 100;
+CREATE SEQUENCE processing_job_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE processing_lease_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE item (
+    id          BIGINT NOT NULL,
+    name        VARCHAR(255),
+    description VARCHAR(255),
+    status      VARCHAR(255),
+    email       VARCHAR(255),
+    version     BIGINT,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_item_status_id ON item (status, id);
+CREATE INDEX idx_item_email ON item (email);
+CREATE INDEX idx_item_name ON item (name);
+
+CREATE TABLE processing_job (
+    id               BIGINT NOT NULL,
+    status           VARCHAR(16),
+    queued           BIGINT NOT NULL,
+    processed        BIGINT NOT NULL,
+    failed           BIGINT NOT NULL,
+    created_at       TIMESTAMP(6) WITH TIME ZONE,
+    started_at       TIMESTAMP(6) WITH TIME ZONE,
+    finished_at      TIMESTAMP(6) WITH TIME ZONE,
+    error            VARCHAR(255),
+    cancel_requested BOOLEAN NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE processing_lease (
+    id         BIGINT NOT NULL,
+    job_id     BIGINT,
+    first_id   BIGINT NOT NULL,
+    last_id    BIGINT NOT NULL,
+    owner      VARCHAR(255),
+    expires_at TIMESTAMP(6) WITH TIME ZONE,
+    done       BOOLEAN NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_lease_job_done ON processing_lease (job_id, done);
@@ -0,0 +1,19 @@
+-- Items that could not be processed, and checkpoints from which a partition is resumed after a crash.
+
+CREATE SEQUENCE dead_letter_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE dead_letter (
+    id        BIGINT NOT NULL,
+    job_id    BIGINT,
+    item_id   BIGINT NOT NULL,
+    stage     VARCHAR(64),
+    cause     VARCHAR(1000),
+    failed_at TIMESTAMP(6) WITH TIME ZONE,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_dead_letter_job ON dead_letter (job_id, id);
+
+ALTER TABLE processing_lease ADD COLUMN checkpoint_id BIGINT;
+ALTER TABLE processing_lease ADD COLUMN processed BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE processing_lease ADD COLUMN failed BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,15 @@
+-- Append-only log of item creates, updates and deletes, written in the same transaction as the change itself.
+-- Processing jobs record the range of the log they cover, so that the next run only processes what changed since.
+
+CREATE TABLE item_change (
+    seq        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    item_id    BIGINT NOT NULL,
+    type       VARCHAR(16) NOT NULL,
+    changed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (seq)
+);
+
+CREATE INDEX idx_item_change_item ON item_change (item_id, seq);
+
+ALTER TABLE processing_job ADD COLUMN since_change BIGINT;
+ALTER TABLE processing_job ADD COLUMN until_change BIGINT;
@@ -0,0 +1,13 @@
+-- Inverted index of the words in item names and descriptions, written in the same transaction as the item.
+-- A posting holds how strongly a term describes an item; postings go away with their item. Items that existed
+-- before this migration are indexed by POST /api/items/search/reindex.
+
+CREATE TABLE item_term (
+    term    VARCHAR(64) NOT NULL,
+    item_id BIGINT NOT NULL,
+    weight  INT NOT NULL,
+    PRIMARY KEY (term, item_id),
+    FOREIGN KEY (item_id) REFERENCES item (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_item_term_item ON item_term (item_id);
@@ -0,0 +1,9 @@
+-- A single row that every node locks while it checks for an active processing run and creates a job, so that
+-- two nodes cannot both find the cluster idle and start a run each.
+
+CREATE TABLE processing_run_lock (
+    id INT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO processing_run_lock (id) VALUES (1);
@@ -0,0 +1,61 @@
+package com.siemens.internship;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Seeds the items the integration tests work on and empties every table afterwards, so that no test sees
+ * the items, changes, leases, jobs or dead letters left behind by another one sharing the database.
+ */
+public final class TestData {
+    /**
+     * Every table holding state, referencing tables first; search index postings are deleted along with
+     * their items.
+     */
+    private static final List<String> TABLES = List.of(
+            "dead_letter", "processing_lease", "processing_job", "item_change", "item");
+
+    private TestData() {
+    }
+
+    /**
+     * @return {@code count} new items named "Item0", "Item1", ..., all with status NEW and a valid email
+     */
+    public static List<Item> items(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Item(null, "Item" + i, "Description" + i, "NEW", "item" + i + "@domain.com"))
+                .toList();
+    }
+
+    /**
+     * Inserts {@link #items(int)} straight through the repository, without recording changes or indexing them.
+     *
+     * @param context the application context whose database is seeded
+     * @param count   the number of items
+     * @return the IDs of the items, in ascending order
+     */
+    public static List<Long> seedItems(ApplicationContext context, int count) {
+        return context.getBean(ItemRepository.class).saveAll(items(count)).stream()
+                .map(Item::getId)
+                .sorted()
+                .toList();
+    }
+
+    /**
+     * Deletes the rows of every table and clears the caches, which would otherwise serve deleted items.
+     *
+     * @param context the application context whose database is emptied
+     */
+    public static void clear(ApplicationContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        TABLES.forEach(table -> jdbcTemplate.execute("DELETE FROM " + table));
+        CacheManager cacheManager = context.getBean(CacheManager.class);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+}
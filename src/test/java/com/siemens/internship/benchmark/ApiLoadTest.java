@@ -0,0 +1,225 @@
+package com.siemens.internship.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siemens.internship.Application;
+import com.siemens.internship.benchmark.LoadGenerator.Operation;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the whole stack, from Tomcat through the controllers and services down to JPA and H2, with mixed
+ * workloads and fails if a workload misses its {@link LatencySlo}. The application is started once on a random
+ * port with its own seeded database and warmed up with every workload before anything is measured. Admission
+ * control is switched off, so that the measured latencies are those of serving requests rather than of
+ * rejecting them.
+ * <p>
+ * Excluded from the default build; run with {@code mvn test -Pload}. The size of the test is set with
+ * {@code -Dload.items}, {@code -Dload.connections}, {@code -Dload.warmup} and {@code -Dload.duration}, the rate of a
+ * workload with e.g. {@code -Dload.read-heavy.rate=1000}, and the latency distributions of the last run are
+ * written to {@code target/load-test}.
+ */
+@Tag("load")
+public class ApiLoadTest {
+    private static final int ITEM_COUNT = Integer.getInteger("load.items", 20_000);
+    private static final int CONNECTIONS = Integer.getInteger("load.connections", 16);
+    private static final Duration WARMUP = duration("load.warmup", Duration.ofSeconds(10));
+    private static final Duration DURATION = duration("load.duration", Duration.ofSeconds(20));
+    private static final Duration PROCESSING_TIMEOUT = duration("load.processing.timeout", Duration.ofMinutes(2));
+    private static final Path REPORT_DIRECTORY = Path.of("target", "load-test");
+
+    private static ConfigurableApplicationContext context;
+    private static ObjectMapper objectMapper;
+    private static HttpClient client;
+    private static String baseUrl;
+    private static long[] ids;
+    private static final AtomicLong writes = new AtomicLong();
+
+    @BeforeAll
+    public static void startApplication() throws Exception {
+        // Passed as arguments, since application.properties overrides the builder's default properties
+        context = new SpringApplicationBuilder(Application.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load-test",
+                        "--item.admission.enabled=false");
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        itemRepository.saveAll(IntStream.range(0, ITEM_COUNT)
+                .mapToObj(i -> new Item(null, "Item" + i, "Description" + i, i % 2 == 0 ? "NEW" : "DONE",
+                        "item" + i + "@domain.com"))
+                .toList());
+        ids = itemRepository.findAllIds().stream().mapToLong(Long::longValue).toArray();
+
+        objectMapper = context.getBean(ObjectMapper.class);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        new LoadGenerator(client, CONNECTIONS, rate("read-heavy", 500))
+                .run(readHeavyOperations(), WARMUP.dividedBy(2), () -> false);
+        new LoadGenerator(client, CONNECTIONS, rate("write-heavy", 200))
+                .run(writeHeavyOperations(), WARMUP.dividedBy(2), () -> false);
+    }
+
+    @AfterAll
+    public static void stopApplication() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    /**
+     * Lookups by ID, which are mostly served from the item cache, with some pages, filtered queries and status
+     * counts in between.
+     */
+    @Test
+    public void readHeavy() throws Exception {
+        double rate = rate("read-heavy", 500);
+        LoadGenerator.Result result = new LoadGenerator(client, CONNECTIONS, rate)
+                .run(readHeavyOperations(), DURATION, () -> false);
+
+        result.report("read-heavy", REPORT_DIRECTORY);
+        LatencySlo.forWorkload("read-heavy", new LatencySlo(
+                        Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofMillis(200), 0, 0.9 * rate))
+                .assertMet("read-heavy", result);
+    }
+
+    /**
+     * Creates and status changes, each of which also writes the change log and evicts the item from the cache,
+     * with some lookups of the changed items.
+     */
+    @Test
+    public void writeHeavy() throws Exception {
+        double rate = rate("write-heavy", 200);
+        LoadGenerator.Result result = new LoadGenerator(client, CONNECTIONS, rate)
+                .run(writeHeavyOperations(), DURATION, () -> false);
+
+        result.report("write-heavy", REPORT_DIRECTORY);
+        LatencySlo.forWorkload("write-heavy", new LatencySlo(
+                        Duration.ofMillis(20), Duration.ofMillis(100), Duration.ofMillis(300), 0, 0.9 * rate))
+                .assertMet("write-heavy", result);
+    }
+
+    /**
+     * Reads while a full processing run updates every item, which competes with them for connections and
+     * evicts the items it processes from the cache. Besides the latency of the reads, the run has to process
+     * at least {@code load.processing.min-items-per-second} items per second.
+     */
+    @Test
+    public void processingUnderLoad() throws Exception {
+        HttpResponse<String> started = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/items/process?full=true"))
+                        .POST(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(202, started.statusCode(), started.body());
+        URI jobUri = URI.create(started.headers().firstValue("Location").orElseThrow());
+        long start = System.nanoTime();
+        CompletableFuture<JsonNode> finishedJob = CompletableFuture.supplyAsync(() -> awaitJob(jobUri))
+                .orTimeout(PROCESSING_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        LoadGenerator.Result result = new LoadGenerator(client, CONNECTIONS, rate("processing", 200))
+                .run(readHeavyOperations(), PROCESSING_TIMEOUT, finishedJob::isDone);
+        JsonNode job = finishedJob.join();
+        double itemsPerSecond = job.get("processed").asLong() / ((System.nanoTime() - start) / 1e9);
+
+        result.report("processing", REPORT_DIRECTORY);
+        System.out.printf("%-12s items=%d processing=%.0f items/s%n", "processing", job.get("processed").asLong(),
+                itemsPerSecond);
+        double minItemsPerSecond = Double.parseDouble(
+                System.getProperty("load.processing.min-items-per-second", "1000"));
+        assertAll("processing",
+                () -> assertEquals("COMPLETED", job.get("status").asText()),
+                () -> assertEquals(job.get("queued").asLong(), job.get("processed").asLong()),
+                () -> assertTrue(itemsPerSecond >= minItemsPerSecond,
+                        "Processing %.0f items/s is below %.0f".formatted(itemsPerSecond, minItemsPerSecond)));
+        // Reads only run while the job does, so the throughput objective does not apply
+        LatencySlo.forWorkload("processing",
+                        new LatencySlo(Duration.ofMillis(20), Duration.ofMillis(250), Duration.ofSeconds(1), 0, 0))
+                .assertMet("processing", result);
+    }
+
+    private static List<Operation> readHeavyOperations() {
+        return List.of(
+                new Operation("get-by-id", 80, () -> get("/api/items/" + randomId())),
+                new Operation("page", 8, () -> get("/api/items?limit=50&after=" + randomId())),
+                new Operation("query", 8, () -> get("/api/items/query?status=NEW&limit=50&after=" + randomId())),
+                new Operation("status-counts", 4, () -> get("/api/items/status-counts")));
+    }
+
+    private static List<Operation> writeHeavyOperations() {
+        return List.of(
+                new Operation("create", 40, () -> {
+                    long n = writes.incrementAndGet();
+                    return HttpRequest.newBuilder(URI.create(baseUrl + "/api/items"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("""
+                                    {"name":"Load%d","description":"Created by the load test","status":"NEW",\
+                                    "email":"load%d@domain.com"}""".formatted(n, n)))
+                            .build();
+                }),
+                new Operation("update-status", 40, () -> HttpRequest.newBuilder(
+                                URI.create(baseUrl + "/api/items/" + randomId()))
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"status\":\"UPDATED\"}"))
+                        .build()),
+                new Operation("get-by-id", 20, () -> get("/api/items/" + randomId())));
+    }
+
+    /**
+     * @return the requests per second of the workload, set with {@code load.<workload>.rate}
+     */
+    private static double rate(String workload, double defaultRate) {
+        String value = System.getProperty("load." + workload + ".rate");
+        return value != null ? Double.parseDouble(value) : defaultRate;
+    }
+
+    private static HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private static long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private static JsonNode awaitJob(URI jobUri) {
+        try {
+            while (true) {
+                JsonNode job = objectMapper.readTree(client.send(HttpRequest.newBuilder(jobUri).GET().build(),
+                        HttpResponse.BodyHandlers.ofString()).body());
+                if (!List.of("QUEUED", "RUNNING").contains(job.get("status").asText())) {
+                    return job;
+                }
+                Thread.sleep(50);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Polling " + jobUri + " failed", e);
+        }
+    }
+
+    private static Duration duration(String property, Duration defaultValue) {
+        String value = System.getProperty(property);
+        return value != null ? DurationStyle.detectAndParse(value) : defaultValue;
+    }
+}
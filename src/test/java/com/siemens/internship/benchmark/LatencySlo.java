@@ -0,0 +1,69 @@
+package com.siemens.internship.benchmark;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Service level objectives of a load test workload: latency percentiles, the share of failed requests, and the
+ * throughput that has to be sustained. Every threshold can be overridden with a system property named after the
+ * workload, e.g. {@code -Dload.read-heavy.p99=25ms} or {@code -Dload.write-heavy.min-throughput=150}.
+ *
+ * @param p50           the highest acceptable median latency
+ * @param p99           the highest acceptable 99th percentile latency
+ * @param p999          the highest acceptable 99.9th percentile latency
+ * @param maxErrorRate  the highest acceptable share of failed requests, between 0 and 1
+ * @param minThroughput the lowest acceptable number of completed requests per second
+ */
+record LatencySlo(Duration p50, Duration p99, Duration p999, double maxErrorRate, double minThroughput) {
+
+    /**
+     * @return the given defaults, with the thresholds that are set as {@code load.<workload>.*} system properties
+     *         replaced
+     */
+    static LatencySlo forWorkload(String workload, LatencySlo defaults) {
+        String prefix = "load." + workload + ".";
+        return new LatencySlo(
+                duration(prefix + "p50", defaults.p50()),
+                duration(prefix + "p99", defaults.p99()),
+                duration(prefix + "p99.9", defaults.p999()),
+                number(prefix + "max-error-rate", defaults.maxErrorRate()),
+                number(prefix + "min-throughput", defaults.minThroughput()));
+    }
+
+    /**
+     * Fails with every missed objective of the workload at once.
+     */
+    void assertMet(String workload, LoadGenerator.Result result) {
+        Histogram latencies = result.latencies();
+        assertAll(workload,
+                () -> assertTrue(result.requests() > 0, "No requests completed"),
+                () -> assertPercentile(latencies, "p50", 50, p50),
+                () -> assertPercentile(latencies, "p99", 99, p99),
+                () -> assertPercentile(latencies, "p99.9", 99.9, p999),
+                () -> assertTrue(result.errorRate() <= maxErrorRate,
+                        "Error rate %.4f exceeds %.4f".formatted(result.errorRate(), maxErrorRate)),
+                () -> assertTrue(result.throughput() >= minThroughput,
+                        "Throughput %.0f requests/s is below %.0f".formatted(result.throughput(), minThroughput)));
+    }
+
+    private static void assertPercentile(Histogram latencies, String name, double percentile, Duration limit) {
+        long nanos = latencies.getValueAtPercentile(percentile);
+        assertTrue(nanos <= limit.toNanos(),
+                "%s latency %.2f ms exceeds %d ms".formatted(name, nanos / 1e6, limit.toMillis()));
+    }
+
+    private static Duration duration(String property, Duration defaultValue) {
+        String value = System.getProperty(property);
+        return value != null ? DurationStyle.detectAndParse(value) : defaultValue;
+    }
+
+    private static double number(String property, double defaultValue) {
+        String value = System.getProperty(property);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+}
@@ -0,0 +1,196 @@
+package com.siemens.internship.benchmark;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Open-model HTTP load generator. Each connection sends its requests on a fixed schedule, choosing the operation
+ * by weight, and the latency of a request is measured from the time it was scheduled rather than sent. A stalled
+ * server therefore shows up as the full time every queued request waited, instead of being hidden by the generator
+ * slowing down along with it (coordinated omission).
+ */
+final class LoadGenerator {
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final HttpClient client;
+    private final int connections;
+    private final double requestsPerSecond;
+
+    /**
+     * @param client            the client sending the requests
+     * @param connections       the number of requests that may be outstanding at once
+     * @param requestsPerSecond the rate at which requests are scheduled, over all connections
+     */
+    LoadGenerator(HttpClient client, int connections, double requestsPerSecond) {
+        this.client = client;
+        this.connections = connections;
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    /**
+     * A kind of request of a workload.
+     *
+     * @param name    the name the latencies are reported under
+     * @param weight  the share of the requests of this kind, relative to the weights of the other operations
+     * @param request creates the next request; called concurrently
+     */
+    record Operation(String name, int weight, Supplier<HttpRequest> request) {
+    }
+
+    /**
+     * Sends requests for the duration or until {@code finished} returns true, whichever comes first.
+     *
+     * @return the latencies and errors recorded
+     */
+    Result run(List<Operation> operations, Duration duration, BooleanSupplier finished) throws InterruptedException {
+        Result result = new Result(operations);
+        long intervalNanos = (long) (connections * 1e9 / requestsPerSecond);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(connections);
+        for (int i = 0; i < connections; i++) {
+            long first = start + intervalNanos * i / connections;
+            workers.execute(() -> send(operations, result, first, intervalNanos, end, finished));
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(duration.toNanos() + HIGHEST_TRACKABLE_NANOS, TimeUnit.NANOSECONDS)) {
+            workers.shutdownNow();
+        }
+        // Up to the last response, so that a server falling behind the schedule lowers the throughput
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private void send(List<Operation> operations, Result result, long first, long intervalNanos, long end,
+                      BooleanSupplier finished) {
+        int totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        for (long scheduled = first; scheduled < end && !finished.getAsBoolean(); scheduled += intervalNanos) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = pick(operations, ThreadLocalRandom.current().nextInt(totalWeight));
+            boolean succeeded;
+            try {
+                succeeded = client.send(operation.request().get(), HttpResponse.BodyHandlers.discarding())
+                        .statusCode() < 400;
+            } catch (IOException e) {
+                succeeded = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            result.record(operation, System.nanoTime() - scheduled, succeeded);
+        }
+    }
+
+    private static Operation pick(List<Operation> operations, int ticket) {
+        for (Operation operation : operations) {
+            ticket -= operation.weight();
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Operations have no weight");
+    }
+
+    /**
+     * The latencies, in nanoseconds, and failed requests recorded per operation.
+     */
+    static final class Result {
+        private final Map<String, Histogram> latencies = new LinkedHashMap<>();
+        private final Map<String, LongAdder> errors = new LinkedHashMap<>();
+        private long elapsedNanos;
+
+        private Result(List<Operation> operations) {
+            for (Operation operation : operations) {
+                latencies.put(operation.name(), new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3));
+                errors.put(operation.name(), new LongAdder());
+            }
+        }
+
+        private void record(Operation operation, long latencyNanos, boolean succeeded) {
+            latencies.get(operation.name()).recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+            if (!succeeded) {
+                errors.get(operation.name()).increment();
+            }
+        }
+
+        /**
+         * @return the latencies of all operations together
+         */
+        Histogram latencies() {
+            Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+            latencies.values().forEach(total::add);
+            return total;
+        }
+
+        long requests() {
+            return latencies().getTotalCount();
+        }
+
+        long errors() {
+            return errors.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        double errorRate() {
+            long requests = requests();
+            return requests == 0 ? 0 : errors() / (double) requests;
+        }
+
+        /**
+         * @return the completed requests per second
+         */
+        double throughput() {
+            return requests() / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * Prints a summary line per operation and writes the percentile distribution of each, in milliseconds,
+         * to {@code <directory>/<workload>-<operation>.hgrm}, where runs can be compared or plotted.
+         */
+        void report(String workload, Path directory) throws IOException {
+            Files.createDirectories(directory);
+            Map<String, Histogram> reported = new LinkedHashMap<>(latencies);
+            reported.put("all", latencies());
+            for (Map.Entry<String, Histogram> entry : reported.entrySet()) {
+                Histogram histogram = entry.getValue();
+                long failed = entry.getKey().equals("all") ? errors() : errors.get(entry.getKey()).sum();
+                System.out.printf("%-12s %-16s requests=%d errors=%d p50=%.2f ms p90=%.2f ms p99=%.2f ms "
+                                + "p99.9=%.2f ms max=%.2f ms%n",
+                        workload, entry.getKey(), histogram.getTotalCount(), failed,
+                        millis(histogram, 50), millis(histogram, 90), millis(histogram, 99),
+                        millis(histogram, 99.9), histogram.getMaxValue() / 1e6);
+                try (PrintStream out = new PrintStream(
+                        Files.newOutputStream(directory.resolve(workload + "-" + entry.getKey() + ".hgrm")))) {
+                    histogram.outputPercentileDistribution(out, 1e6);
+                }
+            }
+            System.out.printf("%-12s throughput=%.0f requests/s%n", workload, throughput());
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.siemens.internship.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siemens.internship.Application;
+import com.siemens.internship.config.ItemProcessingProperties.ExecutorMode;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the executor modes of the processing engine. For every mode the application is started on a
+ * random port, a processing run is started through {@code POST /api/items/process}, and while it runs
+ * a set of clients keeps reading single items so the latency impact on the REST layer is visible too.
+ * <p>
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+public class ProcessingExecutorBenchmarkTest {
+    private static final int ITEM_COUNT = Integer.getInteger("benchmark.items", 20_000);
+    private static final int READERS = Integer.getInteger("benchmark.readers", 8);
+
+    @ParameterizedTest
+    @EnumSource(ExecutorMode.class)
+    public void benchmarkProcessEndpoint(ExecutorMode mode) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + mode,
+                        "item.processing.executor=" + mode,
+                        "spring.threads.virtual.enabled=" + (mode == ExecutorMode.VIRTUAL))
+                .run()) {
+            ItemRepository itemRepository = context.getBean(ItemRepository.class);
+            itemRepository.saveAll(IntStream.range(0, ITEM_COUNT)
+                    .mapToObj(i -> new Item(null, "Item" + i, "Description" + i, "NEW", "item" + i + "@domain.com"))
+                    .toList());
+            List<Long> ids = itemRepository.findAllIds();
+
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            HttpClient client = HttpClient.newHttpClient();
+
+            AtomicBoolean running = new AtomicBoolean(true);
+            ExecutorService readers = Executors.newFixedThreadPool(READERS);
+            List<Future<long[]>> readerLatencies = new ArrayList<>();
+            for (int i = 0; i < READERS; i++) {
+                readerLatencies.add(readers.submit(() -> readWhileRunning(client, baseUrl, ids, running)));
+            }
+
+            long start = System.nanoTime();
+            HttpResponse<String> started = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/items/process"))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+            URI jobUri = URI.create(started.headers().firstValue("Location").orElseThrow());
+            JsonNode job;
+            do {
+                Thread.sleep(20);
+                job = objectMapper.readTree(client.send(HttpRequest.newBuilder(jobUri).GET().build(),
+                        HttpResponse.BodyHandlers.ofString()).body());
+            } while (!"COMPLETED".equals(job.get("status").asText()));
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            running.set(false);
+            List<Long> latencies = new ArrayList<>();
+            for (Future<long[]> future : readerLatencies) {
+                Arrays.stream(future.get()).forEach(latencies::add);
+            }
+            readers.shutdown();
+            readers.awaitTermination(10, TimeUnit.SECONDS);
+            latencies.sort(null);
+
+            System.out.printf("%-13s items=%d throughput=%.0f items/s reads=%d read-p50=%.2f ms read-p99=%.2f ms%n",
+                    mode, ITEM_COUNT, ITEM_COUNT / seconds, latencies.size(),
+                    percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6);
+            assertEquals(ITEM_COUNT, job.get("processed").asLong());
+        }
+    }
+
+    private static long[] readWhileRunning(HttpClient client, String baseUrl, List<Long> ids, AtomicBoolean running)
+            throws Exception {
+        List<Long> latencies = new ArrayList<>();
+        while (running.get()) {
+            long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+            long start = System.nanoTime();
+            client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/items/" + id)).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            latencies.add(System.nanoTime() - start);
+        }
+        return latencies.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static double percentile(List<Long> sorted, double quantile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(quantile * sorted.size()) - 1));
+    }
+}
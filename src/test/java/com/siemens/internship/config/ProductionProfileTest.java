@@ -0,0 +1,68 @@
+package com.siemens.internship.config;
+
+import com.siemens.internship.Application;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application twice with the prod profile against the same database file, like a restart.
+ */
+public class ProductionProfileTest {
+    private static final Path DATABASE = Path.of("target", "h2", "prod-profile");
+
+    @BeforeEach
+    public void deleteDatabase() throws IOException {
+        Files.deleteIfExists(Path.of(DATABASE + ".mv.db"));
+    }
+
+    /**
+     * Validates that the schema is created by the migrations, that data survives a restart, and that
+     * the warmup primes the cache and records request latencies before the application reports ready.
+     */
+    @Test
+    public void testProdProfile_KeepsDataAndWarmsUpBeforeReady() {
+        List<Long> ids;
+        try (ConfigurableApplicationContext first = start()) {
+            ids = first.getBean(ItemRepository.class).saveAll(IntStream.range(0, 50)
+                    .mapToObj(i -> new Item(null, "Item" + i, "Description" + i, "NEW", "item" + i + "@domain.com"))
+                    .toList()).stream().map(Item::getId).toList();
+        }
+
+        try (ConfigurableApplicationContext restarted = start()) {
+            assertEquals(50, restarted.getBean(ItemRepository.class).count());
+            assertNotNull(restarted.getBean(CacheManager.class).getCache(CacheConfig.ITEMS_CACHE).get(ids.get(0)));
+            assertEquals(ReadinessState.ACCEPTING_TRAFFIC,
+                    restarted.getBean(ApplicationAvailability.class).getReadinessState());
+
+            Timer firstCall = restarted.getBean(MeterRegistry.class).get("item.warmup.requests")
+                    .tags("uri", "/api/items/{id}", "call", "first").timer();
+            assertEquals(1, firstCall.count());
+        }
+    }
+
+    private ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(Application.class)
+                .profiles("prod")
+                .run("--server.port=0",
+                        "--spring.jmx.enabled=false",
+                        "--spring.datasource.url=jdbc:h2:file:./" + DATABASE + ";DB_CLOSE_ON_EXIT=FALSE",
+                        "--item.warmup.iterations=5");
+    }
+}
@@ -0,0 +1,102 @@
+package com.siemens.internship.controller;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.service.ItemService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "item.admission.burst=3",
+        "item.admission.requests-per-second=0.01",
+        "item.admission.expensive-burst=100",
+        "item.admission.expensive-concurrency=1"
+})
+@AutoConfigureMockMvc
+public class AdmissionInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ItemService itemService;
+
+    private static MockHttpServletRequestBuilder from(String client, MockHttpServletRequestBuilder request) {
+        return request.with(r -> {
+            r.setRemoteAddr(client);
+            return r;
+        });
+    }
+
+    /**
+     * Validates that a client exceeding its burst is rejected with HTTP status 429 and a Retry-After header,
+     * while other clients are still served.
+     */
+    @Test
+    public void testRateLimit_RejectsClientOverItsBurst() throws Exception {
+        when(itemService.findById(1L)).thenReturn(Optional.of(new Item(1L, "Item1", "Description1", "NEW", "a@domain.com")));
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(from("10.0.0.1", get("/api/items/1")))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(from("10.0.0.1", get("/api/items/1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        mockMvc.perform(from("10.0.0.2", get("/api/items/1")))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Validates that expensive requests beyond the concurrency limit are rejected while one is being served,
+     * that cheap endpoints are still served meanwhile, and that the permit is returned afterwards.
+     */
+    @Test
+    public void testConcurrencyLimit_RejectsExpensiveRequestsButServesCheapOnes() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(itemService.findAll()).thenAnswer(invocation -> {
+            entered.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return List.of();
+        });
+        when(itemService.findById(2L)).thenReturn(Optional.of(new Item(2L, "Item2", "Description2", "NEW", "b@domain.com")));
+
+        CompletableFuture<Integer> slow = CompletableFuture.supplyAsync(() -> {
+            try {
+                return mockMvc.perform(from("10.0.1.1", get("/api/items"))).andReturn().getResponse().getStatus();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+        mockMvc.perform(from("10.0.1.2", get("/api/items")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"));
+        mockMvc.perform(from("10.0.1.2", get("/api/items/2")))
+                .andExpect(status().isOk());
+
+        release.countDown();
+        assertEquals(200, slow.get(10, TimeUnit.SECONDS));
+        mockMvc.perform(from("10.0.1.2", get("/api/items")))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,49 @@
+package com.siemens.internship.controller;
+
+import com.siemens.internship.config.CacheConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * Test for the `getCacheStatistics` method in the `CacheController` class.
+     * Validates that the statistics of the item cache are returned with HTTP status 200.
+     */
+    @Test
+    public void testGetCacheStatistics_ReturnsItemCacheStats() throws Exception {
+        cacheManager.getCache(CacheConfig.ITEMS_CACHE).get(-1L);
+
+        mockMvc.perform(get("/api/caches/items"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("items"))
+                .andExpect(jsonPath("$.missCount").isNumber())
+                .andExpect(jsonPath("$.hitRate").isNumber())
+                .andExpect(jsonPath("$.evictionCount").isNumber());
+    }
+
+    /**
+     * Test for the `getCacheStatistics` method in the `CacheController` class.
+     * Validates that HTTP status 404 is returned for an unknown cache.
+     */
+    @Test
+    public void testGetCacheStatistics_ReturnsNotFoundForUnknownCache() throws Exception {
+        mockMvc.perform(get("/api/caches/unknown"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,167 @@
+package com.siemens.internship.controller;
+
+import com.siemens.internship.TestData;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs the bulk endpoints against the real service and database, since their behavior is mostly about
+ * how items are validated, chunked and written.
+ */
+@SpringBootTest(properties = "item.processing.chunk-size=2")
+@AutoConfigureMockMvc
+public class ItemBulkControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @AfterEach
+    public void clearItems() {
+        TestData.clear(applicationContext);
+    }
+
+    /**
+     * Test for the `createItems` method in the `ItemBulkController` class.
+     * Validates that a JSON array of valid items is created across several chunks with HTTP status 201.
+     */
+    @Test
+    public void testCreateItems_JsonArray_CreatesAllItems() throws Exception {
+        String items = """
+                [
+                    {"name": "Item1", "status": "NEW", "email": "a@domain.com"},
+                    {"name": "Item2", "status": "NEW", "email": "b@domain.com"},
+                    {"name": "Item3", "status": "NEW", "email": "c@domain.com"}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(items))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.succeeded").value(3))
+                .andExpect(jsonPath("$.failed").value(0))
+                .andExpect(jsonPath("$.results[2].status").value(201))
+                .andExpect(jsonPath("$.results[2].id").isNumber());
+
+        assertEquals(3, itemRepository.count());
+    }
+
+    /**
+     * Test for the `createItems` method in the `ItemBulkController` class.
+     * Validates that NDJSON items with an invalid email are rejected individually with HTTP status 207.
+     */
+    @Test
+    public void testCreateItems_Ndjson_ReportsInvalidItems() throws Exception {
+        String items = """
+                {"name": "Item1", "email": "a@domain.com"}
+                {"name": "Item2", "email": "not-an-email"}
+                {"name": "Item3", "email": "c@domain.com"}
+                """;
+
+        mockMvc.perform(post("/api/items/bulk")
+                        .contentType(ItemController.NDJSON_VALUE)
+                        .content(items))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.succeeded").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[1].index").value(1))
+                .andExpect(jsonPath("$.results[1].status").value(400))
+                .andExpect(jsonPath("$.results[1].error").value("Validation failed: email must be a well-formed email address"));
+
+        assertEquals(2, itemRepository.count());
+    }
+
+    /**
+     * Test for the `updateItems` method in the `ItemBulkController` class.
+     * Validates that existing items are updated while unknown and ID-less items are reported with HTTP status 207.
+     */
+    @Test
+    public void testUpdateItems_ReportsMissingItems() throws Exception {
+        Item existing = itemRepository.save(new Item(null, "Item1", "Description1", "NEW", "a@domain.com"));
+        String items = """
+                [
+                    {"id": %d, "name": "Updated", "status": "DONE", "email": "a@domain.com"},
+                    {"id": %d, "name": "Missing", "email": "b@domain.com"},
+                    {"name": "NoId", "email": "c@domain.com"}
+                ]
+                """.formatted(existing.getId(), existing.getId() + 1000);
+
+        mockMvc.perform(put("/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(items))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.results[0].status").value(200))
+                .andExpect(jsonPath("$.results[1].status").value(404))
+                .andExpect(jsonPath("$.results[2].status").value(400));
+
+        assertEquals("Updated", itemRepository.findById(existing.getId()).orElseThrow().getName());
+    }
+
+    /**
+     * Test for the `updateItems` method in the `ItemBulkController` class.
+     * Validates that items carrying an outdated version are reported with status 409 and left unchanged.
+     */
+    @Test
+    public void testUpdateItems_ReportsConflicts() throws Exception {
+        Item existing = itemRepository.save(new Item(null, "Item1", "Description1", "NEW", "a@domain.com"));
+        String items = """
+                [
+                    {"id": %d, "name": "Stale", "email": "a@domain.com", "version": %d}
+                ]
+                """.formatted(existing.getId(), existing.getVersion() + 1);
+
+        mockMvc.perform(put("/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(items))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.results[0].status").value(409));
+
+        assertEquals("Item1", itemRepository.findById(existing.getId()).orElseThrow().getName());
+    }
+
+    /**
+     * Test for the `deleteItems` method in the `ItemBulkController` class.
+     * Validates that all listed items are deleted with HTTP status 204.
+     */
+    @Test
+    public void testDeleteItems_DeletesAllListedItems() throws Exception {
+        List<Item> saved = itemRepository.saveAll(List.of(
+                new Item(null, "Item1", "Description1", "NEW", "a@domain.com"),
+                new Item(null, "Item2", "Description2", "NEW", "b@domain.com"),
+                new Item(null, "Item3", "Description3", "NEW", "c@domain.com")));
+
+        MvcResult result = mockMvc.perform(delete("/api/items/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[%d, %d]".formatted(saved.get(0).getId(), saved.get(1).getId())))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNoContent());
+
+        List<Item> remaining = itemRepository.findAll();
+        assertEquals(1, remaining.size());
+        assertTrue(remaining.stream().allMatch(item -> item.getId().equals(saved.get(2).getId())));
+    }
+}
@@ -1,22 +1,47 @@
 package com.siemens.internship.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.siemens.internship.config.SmileConfig;
+import com.siemens.internship.model.ChangeType;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemChange;
+import com.siemens.internship.model.ItemFilter;
+import com.siemens.internship.model.ItemPage;
+import com.siemens.internship.model.ItemSummary;
+import com.siemens.internship.model.ReindexResult;
+import com.siemens.internship.model.SearchHit;
+import com.siemens.internship.model.SearchPage;
+import com.siemens.internship.model.StatusCount;
+import com.siemens.internship.service.ItemChangeService;
+import com.siemens.internship.service.ItemSearchService;
 import com.siemens.internship.service.ItemService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -29,6 +54,12 @@ public class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ItemChangeService itemChangeService;
+
+    @MockBean
+    private ItemSearchService itemSearchService;
+
     /**
      * Test for the `getAllItems` method in the `ItemController` class.
      * Validates that all items are retrieved and properly returned as JSON with HTTP status 200.
@@ -83,6 +114,215 @@ public class ItemControllerTest {
                 .andExpect(content().json("[]"));
     }
 
+    /**
+     * Test for the `getItemPage` method in the `ItemController` class.
+     * Validates that a keyset page and the cursor of the next page are returned with HTTP status 200.
+     */
+    @Test
+    public void testGetItemPage_ReturnsPageWithCursor() throws Exception {
+        List<Item> items = List.of(
+                new Item(11L, "Item11", "Description11", "Status11", "a@domain.com"),
+                new Item(12L, "Item12", "Description12", "Status12", "b@domain.com"));
+
+        when(itemService.findPageAsync(eq(10L), eq(2)))
+                .thenReturn(CompletableFuture.completedFuture(new ItemPage<>(items, 12L)));
+
+        performAsync(get("/api/items")
+                        .param("after", "10")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"items\":[{\"id\":11},{\"id\":12}],\"nextCursor\":12}"));
+    }
+
+    /**
+     * Test for the `getItemPageAfter` method in the `ItemController` class.
+     * Validates that a cursor without a limit returns a page of the default size instead of all items.
+     */
+    @Test
+    public void testGetItemPageAfter_DefaultsLimit() throws Exception {
+        when(itemService.findPageAsync(eq(10L), eq(ItemController.DEFAULT_PAGE_SIZE)))
+                .thenReturn(CompletableFuture.completedFuture(new ItemPage<>(List.of(), null)));
+
+        performAsync(get("/api/items")
+                        .param("after", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"items\":[],\"nextCursor\":null}"));
+
+        verify(itemService, times(0)).findAll();
+    }
+
+    /**
+     * Test for the `getItemPage` method in the `ItemController` class.
+     * Validates that HTTP status 400 is returned for a limit outside the allowed range.
+     */
+    @Test
+    public void testGetItemPage_ReturnsBadRequestForInvalidLimit() throws Exception {
+        performAsync(get("/api/items")
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, times(0)).findPageAsync(any(), anyInt());
+    }
+
+    /**
+     * Test for the `getChanges` method in the `ItemController` class.
+     * Validates that the changes after the given sequence number are returned with the cursor to continue from.
+     */
+    @Test
+    public void testGetChanges_ReturnsChangesWithCursor() throws Exception {
+        ItemChange change = new ItemChange();
+        change.setSeq(42L);
+        change.setItemId(7L);
+        change.setType(ChangeType.DELETED);
+        change.setChangedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        when(itemChangeService.findChanges(eq(41L), eq(10))).thenReturn(new ItemPage<>(List.of(change), 42L));
+
+        mockMvc.perform(get("/api/items/changes")
+                        .param("since", "41")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(
+                        "{\"items\":[{\"seq\":42,\"itemId\":7,\"type\":\"DELETED\"}],\"nextCursor\":42}"));
+    }
+
+    /**
+     * Test for the `getChanges` method in the `ItemController` class.
+     * Validates that HTTP status 400 is returned for a limit outside the allowed range.
+     */
+    @Test
+    public void testGetChanges_ReturnsBadRequestForInvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/items/changes")
+                        .param("limit", "1001"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemChangeService, times(0)).findChanges(any(), anyInt());
+    }
+
+    /**
+     * Test for the `queryItems` method in the `ItemController` class.
+     * Validates that the criteria are passed to the service and summaries are returned with HTTP status 200.
+     */
+    @Test
+    public void testQueryItems_ReturnsSummaries() throws Exception {
+        ItemFilter filter = new ItemFilter(null, "PROCESSED", "a@domain.com", null);
+        when(itemService.findSummariesAsync(eq(filter), isNull(), eq(100)))
+                .thenReturn(CompletableFuture.completedFuture(
+                        new ItemPage<>(List.of(new ItemSummary(1L, "Item1", "NEW", "a@domain.com")), null)));
+
+        performAsync(get("/api/items/query")
+                        .param("excludeStatus", "PROCESSED")
+                        .param("email", "a@domain.com"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"items\":[{\"id\":1,\"name\":\"Item1\",\"status\":\"NEW\",\"email\":\"a@domain.com\"}],\"nextCursor\":null}", true));
+    }
+
+    /**
+     * Test for the `countItemsByStatus` method in the `ItemController` class.
+     * Validates that the item counts per status are returned with HTTP status 200.
+     */
+    @Test
+    public void testCountItemsByStatus_ReturnsCounts() throws Exception {
+        when(itemService.countByStatusAsync()).thenReturn(CompletableFuture.completedFuture(
+                List.of(new StatusCount("NEW", 3), new StatusCount("PROCESSED", 2))));
+
+        performAsync(get("/api/items/status-counts"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"status\":\"NEW\",\"count\":3},{\"status\":\"PROCESSED\",\"count\":2}]"));
+    }
+
+    /**
+     * Test for the `getItemPage` method in the `ItemController` class.
+     * Validates that HTTP status 503 with a Retry-After header is returned when the executor is saturated.
+     */
+    @Test
+    public void testGetItemPage_ReturnsServiceUnavailableWhenExecutorIsFull() throws Exception {
+        when(itemService.findPageAsync(isNull(), eq(100))).thenThrow(new TaskRejectedException("Queue is full"));
+
+        mockMvc.perform(get("/api/items")
+                        .param("limit", "100"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    /**
+     * Test for the `searchItems` method in the `ItemController` class.
+     * Validates that the ranked hits and the offset of the next page are returned with HTTP status 200.
+     */
+    @Test
+    public void testSearchItems_ReturnsRankedHits() throws Exception {
+        when(itemSearchService.searchAsync(eq("red apple"), eq(2), eq(2)))
+                .thenReturn(CompletableFuture.completedFuture(new SearchPage(List.of(
+                        new SearchHit(1L, "Red apple", "Fresh fruit", "NEW", 2.5),
+                        new SearchHit(2L, "Apple pie", "Baked with red apples", "NEW", 1.5)), 4)));
+
+        performAsync(get("/api/items/search")
+                        .param("q", "red apple")
+                        .param("offset", "2")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"hits\":[{\"id\":1,\"name\":\"Red apple\",\"score\":2.5},"
+                        + "{\"id\":2,\"name\":\"Apple pie\",\"score\":1.5}],\"nextOffset\":4}"));
+    }
+
+    /**
+     * Test for the `searchItems` method in the `ItemController` class.
+     * Validates that HTTP status 400 is returned for a blank query or an offset beyond the maximum,
+     * without searching.
+     */
+    @Test
+    public void testSearchItems_ReturnsBadRequestForInvalidParameters() throws Exception {
+        performAsync(get("/api/items/search")
+                        .param("q", " "))
+                .andExpect(status().isBadRequest());
+        performAsync(get("/api/items/search")
+                        .param("q", "apple")
+                        .param("offset", "10001"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemSearchService, times(0)).searchAsync(any(), anyInt(), anyInt());
+    }
+
+    /**
+     * Test for the `reindexItems` method in the `ItemController` class.
+     * Validates that the number of indexed items is returned with HTTP status 200.
+     */
+    @Test
+    public void testReindexItems_ReturnsIndexedCount() throws Exception {
+        when(itemSearchService.reindexAsync()).thenReturn(CompletableFuture.completedFuture(new ReindexResult(42)));
+
+        performAsync(post("/api/items/search/reindex"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"indexed\":42}", true));
+    }
+
+    /**
+     * Test for the `streamAllItems` method in the `ItemController` class.
+     * Validates that all items are streamed as newline-delimited JSON with HTTP status 200.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStreamAllItems_WritesNdjson() throws Exception {
+        List<Item> items = List.of(
+                new Item(1L, "Item1", "Description1", "Status1", "a@domain.com"),
+                new Item(2L, "Item2", "Description2", "Status2", "b@domain.com"));
+
+        doAnswer(invocation -> {
+            items.forEach(invocation.getArgument(0, Consumer.class));
+            return null;
+        }).when(itemService).streamAll(any());
+
+        MvcResult result = mockMvc.perform(get("/api/items/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"id\":1,\"name\":\"Item1\",\"description\":\"Description1\",\"status\":\"Status1\",\"email\":\"a@domain.com\"}\n"
+                                + "{\"id\":2,\"name\":\"Item2\",\"description\":\"Description2\",\"status\":\"Status2\",\"email\":\"b@domain.com\"}\n"));
+    }
+
     /**
      * Test for the `createItem` method in the `ItemController` class.
      * Validates that an item is successfully created and returns HTTP status 201.
@@ -107,6 +347,27 @@ public class ItemControllerTest {
     }
 
 
+    /**
+     * Test for the `getAllItems` method in the `ItemController` class.
+     * Validates that the items are encoded as Smile when the client asks for it.
+     */
+    @Test
+    public void testGetAllItems_NegotiatesSmile() throws Exception {
+        Item item = new Item(1L, "Item1", "Description1", "Status1", "a@domain.com");
+        item.setVersion(2L);
+        when(itemService.findAll()).thenReturn(List.of(item));
+
+        MvcResult result = mockMvc.perform(get("/api/items").accept(SmileConfig.SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SmileConfig.SMILE_VALUE))
+                .andReturn();
+
+        Item[] decoded = new ObjectMapper(new SmileFactory())
+                .readValue(result.getResponse().getContentAsByteArray(), Item[].class);
+        assertEquals(1, decoded.length);
+        assertEquals(item, decoded[0]);
+    }
+
     /**
      * Test for the `getItemById` method in the `ItemController` class.
      * Validates that a single item is retrieved for a valid ID with HTTP status 200.
@@ -115,6 +376,7 @@ public class ItemControllerTest {
     public void testGetItemById_ReturnsItem() throws Exception {
         // Create test data
         Item item = new Item(1L, "Item1", "Description1", "Status1", "a@domain.com");
+        item.setVersion(3L);
 
         when(itemService.findById(eq(1L))).thenReturn(Optional.of(item));
 
@@ -124,16 +386,35 @@ public class ItemControllerTest {
                     "name": "Item1",
                     "description": "Description1",
                     "status": "Status1",
-                    "email": "a@domain.com"
+                    "email": "a@domain.com",
+                    "version": 3
                 }
                 """;
 
         mockMvc.perform(get("/api/items/1")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
                 .andExpect(content().json(expectedJson));
     }
 
+    /**
+     * Test for the `getItemById` method in the `ItemController` class.
+     * Validates that HTTP status 304 without a body is returned when the client's copy is current.
+     */
+    @Test
+    public void testGetItemById_ReturnsNotModified() throws Exception {
+        Item item = new Item(1L, "Item1", "Description1", "Status1", "a@domain.com");
+        item.setVersion(3L);
+
+        when(itemService.findById(eq(1L))).thenReturn(Optional.of(item));
+
+        mockMvc.perform(get("/api/items/1")
+                        .header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     /**
      * Test for the `getItemById` method in the `ItemController` class.
      * Validates that HTTP status 404 is returned for a non-existent ID.
@@ -154,11 +435,11 @@ public class ItemControllerTest {
     @Test
     public void testUpdateItem_SuccessfullyUpdatesItem() throws Exception {
         // Create test data
-        Item existingItem = new Item(1L, "Item1", "Description1", "Status1", "a@domain.com");
         Item updatedItem = new Item(1L, "UpdatedItem", "UpdatedDescription", "UpdatedStatus", "updated@domain.com");
+        Item savedItem = new Item(1L, "UpdatedItem", "UpdatedDescription", "UpdatedStatus", "updated@domain.com");
+        savedItem.setVersion(4L);
 
-        when(itemService.findById(eq(1L))).thenReturn(Optional.of(existingItem));
-        when(itemService.save(eq(updatedItem))).thenReturn(updatedItem);
+        when(itemService.update(eq(updatedItem), isNull())).thenReturn(Optional.of(savedItem));
 
         String updatedItemJson = """
                 {
@@ -175,7 +456,8 @@ public class ItemControllerTest {
                     "name": "UpdatedItem",
                     "description": "UpdatedDescription",
                     "status": "UpdatedStatus",
-                    "email": "updated@domain.com"
+                    "email": "updated@domain.com",
+                    "version": 4
                 }
                 """;
 
@@ -183,9 +465,10 @@ public class ItemControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(updatedItemJson))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
                 .andExpect(content().json(expectedJson));
 
-        verify(itemService, times(1)).save(updatedItem);
+        verify(itemService, times(1)).update(updatedItem, null);
     }
 
     /**
@@ -194,7 +477,7 @@ public class ItemControllerTest {
      */
     @Test
     public void testUpdateItem_ReturnsNotFound() throws Exception {
-        when(itemService.findById(eq(1L))).thenReturn(Optional.empty());
+        when(itemService.update(any(Item.class), isNull())).thenReturn(Optional.empty());
         String updatedItemJson = """
                 {
                     "name": "UpdatedItem",
@@ -213,69 +496,104 @@ public class ItemControllerTest {
     }
 
     /**
-     * Test for the `deleteItem` method in the `ItemController` class.
-     * Validates that a valid item is successfully deleted and returns HTTP status 204.
+     * Test for the `updateItem` method in the `ItemController` class.
+     * Validates that an update based on an outdated ETag is rejected with HTTP status 412.
      */
     @Test
-    public void testDeleteItem_SuccessfullyDeletesItem() throws Exception {
-        doNothing().when(itemService).deleteById(eq(1L));
-        when(itemService.findById(eq(1L))).thenReturn(Optional.of(new Item(1L, "Item1", "Description1", "Status1", "a@domain.com")));
+    public void testUpdateItem_RejectsStaleIfMatch() throws Exception {
+        when(itemService.update(any(Item.class), eq(3L)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L));
 
-        mockMvc.perform(delete("/api/items/1"))
+        mockMvc.perform(put("/api/items/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-Match", "\"3\"")
+                        .content("{\"name\":\"UpdatedItem\",\"email\":\"updated@domain.com\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    /**
+     * Test for the `updateItem` method in the `ItemController` class.
+     * Validates that an update carrying an outdated version in its body is rejected with HTTP status 409.
+     */
+    @Test
+    public void testUpdateItem_RejectsStaleBodyVersion() throws Exception {
+        when(itemService.update(any(Item.class), eq(3L)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L));
+
+        mockMvc.perform(put("/api/items/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"UpdatedItem\",\"email\":\"updated@domain.com\",\"version\":3}"))
+                .andExpect(status().isConflict());
+    }
+
+    /**
+     * Test for the `updateItemStatus` method in the `ItemController` class.
+     * Validates that only the status is updated, without loading the item, and HTTP status 204 is returned.
+     */
+    @Test
+    public void testUpdateItemStatus_UpdatesStatusOnly() throws Exception {
+        when(itemService.updateStatus(eq(1L), eq("PROCESSED"))).thenReturn(true);
+
+        mockMvc.perform(patch("/api/items/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"PROCESSED\"}"))
                 .andExpect(status().isNoContent());
 
-        verify(itemService, times(1)).deleteById(1L);
+        verify(itemService, times(1)).updateStatus(1L, "PROCESSED");
+        verify(itemService, times(0)).findById(any());
+        verify(itemService, times(0)).save(any(Item.class));
     }
 
     /**
-     * Test for the `processItems` method in the `ItemController` class.
-     * Validates that processed items are returned with HTTP status 202.
+     * Test for the `updateItemStatus` method in the `ItemController` class.
+     * Validates that HTTP status 404 is returned when the item does not exist.
      */
     @Test
-    public void testProcessItems_ReturnsAcceptedWithProcessedItems() throws Exception {
-        // Create test data
-        List<Item> processedItems = new ArrayList<>();
-        processedItems.add(new Item(1L, "ProcessedItem1", "ProcessedDescription1", "ProcessedStatus1", "processed1@domain.com"));
-        processedItems.add(new Item(2L, "ProcessedItem2", "ProcessedDescription2", "ProcessedStatus2", "processed2@domain.com"));
+    public void testUpdateItemStatus_ReturnsNotFound() throws Exception {
+        when(itemService.updateStatus(eq(1L), eq("PROCESSED"))).thenReturn(false);
 
-        when(itemService.processItemsAsync()).thenReturn(processedItems);
+        mockMvc.perform(patch("/api/items/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"PROCESSED\"}"))
+                .andExpect(status().isNotFound());
+    }
 
-        String expectedJson = """
-                [
-                    {
-                        "id": 1,
-                        "name": "ProcessedItem1",
-                        "description": "ProcessedDescription1",
-                        "status": "ProcessedStatus1",
-                        "email": "processed1@domain.com"
-                    },
-                    {
-                        "id": 2,
-                        "name": "ProcessedItem2",
-                        "description": "ProcessedDescription2",
-                        "status": "ProcessedStatus2",
-                        "email": "processed2@domain.com"
-                    }
-                ]
-                """;
+    /**
+     * Test for the `updateItemStatus` method in the `ItemController` class.
+     * Validates that a blank status is rejected with HTTP status 400.
+     */
+    @Test
+    public void testUpdateItemStatus_RejectsBlankStatus() throws Exception {
+        mockMvc.perform(patch("/api/items/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"\"}"))
+                .andExpect(status().isBadRequest());
 
-        mockMvc.perform(get("/api/items/process")
-                        .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isAccepted())
-                .andExpect(content().json(expectedJson));
+        verify(itemService, times(0)).updateStatus(anyLong(), any());
     }
 
     /**
-     * Test for the `processItems` method in the `ItemController` class.
-     * Validates that an empty list of processed items is returned with HTTP status 202.
+     * Test for the `deleteItem` method in the `ItemController` class.
+     * Validates that a valid item is successfully deleted and returns HTTP status 204.
      */
     @Test
-    public void testProcessItems_ReturnsEmptyListWhenNoItemsProcessed() throws Exception {
-        when(itemService.processItemsAsync()).thenReturn(new ArrayList<>());
+    public void testDeleteItem_SuccessfullyDeletesItem() throws Exception {
+        doNothing().when(itemService).deleteById(eq(1L));
+        when(itemService.findById(eq(1L))).thenReturn(Optional.of(new Item(1L, "Item1", "Description1", "Status1", "a@domain.com")));
 
-        mockMvc.perform(get("/api/items/process")
-                        .contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isAccepted())
-                .andExpect(content().json("[]"));
+        mockMvc.perform(delete("/api/items/1"))
+                .andExpect(status().isNoContent());
+
+        verify(itemService, times(1)).deleteById(1L);
+    }
+
+    /**
+     * Performs a request to an endpoint that completes asynchronously and dispatches its result.
+     */
+    private ResultActions performAsync(RequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,225 @@
+package com.siemens.internship.controller;
+
+import com.siemens.internship.exception.ProcessingBusyException;
+import com.siemens.internship.model.DeadLetter;
+import com.siemens.internship.model.ItemPage;
+import com.siemens.internship.model.JobStatus;
+import com.siemens.internship.model.ProcessingEvent;
+import com.siemens.internship.model.ProcessingJob;
+import com.siemens.internship.service.ProcessingJobService;
+import com.siemens.internship.service.ProcessingStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ProcessingJobControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProcessingJobService processingJobService;
+
+    @MockBean
+    private ProcessingStreamService processingStreamService;
+
+    private static ProcessingJob job(Long id, JobStatus status, long queued, long processed) {
+        ProcessingJob job = new ProcessingJob();
+        job.setId(id);
+        job.setStatus(status);
+        job.setQueued(queued);
+        job.setProcessed(processed);
+        return job;
+    }
+
+    /**
+     * Test for the `startProcessing` method in the `ProcessingJobController` class.
+     * Validates that a job is queued and returned immediately with HTTP status 202 and its location.
+     */
+    @Test
+    public void testStartProcessing_ReturnsAcceptedWithLocation() throws Exception {
+        when(processingJobService.startJob(false)).thenReturn(job(7L, JobStatus.QUEUED, 100, 0));
+
+        mockMvc.perform(post("/api/items/process"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/items/process/jobs/7"))
+                .andExpect(content().json("{\"id\":7,\"status\":\"QUEUED\",\"queued\":100,\"processed\":0,\"failed\":0}"));
+    }
+
+    /**
+     * Test for the `startProcessing` method in the `ProcessingJobController` class.
+     * Validates that a full run over all items can be requested instead of an incremental one.
+     */
+    @Test
+    public void testStartProcessing_FullRun() throws Exception {
+        when(processingJobService.startJob(true)).thenReturn(job(7L, JobStatus.QUEUED, 100, 0));
+
+        mockMvc.perform(post("/api/items/process").param("full", "true"))
+                .andExpect(status().isAccepted());
+
+        verify(processingJobService).startJob(true);
+    }
+
+    /**
+     * Test for the `startProcessing` method in the `ProcessingJobController` class.
+     * Validates that a run requested while another one is active is rejected with HTTP status 429,
+     * a Retry-After header and the location of the active job.
+     */
+    @Test
+    public void testStartProcessing_RejectsWhileAnotherRunIsActive() throws Exception {
+        when(processingJobService.startJob(false)).thenThrow(new ProcessingBusyException("Processing job 7 is in progress", 7L, 30));
+
+        mockMvc.perform(post("/api/items/process"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "30"))
+                .andExpect(header().string("Location", "http://localhost/api/items/process/jobs/7"))
+                .andExpect(content().string("Processing job 7 is in progress"));
+    }
+
+    /**
+     * Test for the `getJob` method in the `ProcessingJobController` class.
+     * Validates that the progress counters of an existing job are returned with HTTP status 200.
+     */
+    @Test
+    public void testGetJob_ReturnsProgress() throws Exception {
+        when(processingJobService.findById(eq(7L))).thenReturn(Optional.of(job(7L, JobStatus.RUNNING, 100, 40)));
+
+        mockMvc.perform(get("/api/items/process/jobs/7"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":7,\"status\":\"RUNNING\",\"queued\":100,\"processed\":40}"))
+                .andExpect(jsonPath("$.throughput").exists());
+    }
+
+    /**
+     * Test for the `getJob` method in the `ProcessingJobController` class.
+     * Validates that HTTP status 404 is returned for a non-existent job.
+     */
+    @Test
+    public void testGetJob_ReturnsNotFound() throws Exception {
+        when(processingJobService.findById(eq(7L))).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/items/process/jobs/7"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Test for the `getDeadLetters` method in the `ProcessingJobController` class.
+     * Validates that the items a job gave up on are listed with their stage and cause.
+     */
+    @Test
+    public void testGetDeadLetters_ReturnsPage() throws Exception {
+        DeadLetter deadLetter = new DeadLetter(7L, 42L, "persist", new IllegalStateException("Lock timeout"));
+        deadLetter.setId(3L);
+        when(processingJobService.findDeadLetters(eq(7L), eq(null), eq(100)))
+                .thenReturn(Optional.of(new ItemPage<>(List.of(deadLetter), null)));
+
+        mockMvc.perform(get("/api/items/process/jobs/7/dead-letters"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].itemId").value(42))
+                .andExpect(jsonPath("$.items[0].stage").value("persist"))
+                .andExpect(jsonPath("$.items[0].cause").value("IllegalStateException: Lock timeout"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    /**
+     * Test for the `getDeadLetters` method in the `ProcessingJobController` class.
+     * Validates that HTTP status 404 is returned for a non-existent job.
+     */
+    @Test
+    public void testGetDeadLetters_ReturnsNotFound() throws Exception {
+        when(processingJobService.findDeadLetters(eq(7L), eq(null), eq(100))).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/items/process/jobs/7/dead-letters"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Test for the `cancelJob` method in the `ProcessingJobController` class.
+     * Validates that the cancellation of an existing job is accepted with HTTP status 202.
+     */
+    @Test
+    public void testCancelJob_ReturnsAccepted() throws Exception {
+        when(processingJobService.cancel(eq(7L))).thenReturn(Optional.of(job(7L, JobStatus.RUNNING, 100, 40)));
+
+        mockMvc.perform(delete("/api/items/process/jobs/7"))
+                .andExpect(status().isAccepted());
+
+        verify(processingJobService, times(1)).cancel(7L);
+    }
+
+    /**
+     * Test for the `cancelJob` method in the `ProcessingJobController` class.
+     * Validates that HTTP status 404 is returned when cancelling a non-existent job.
+     */
+    @Test
+    public void testCancelJob_ReturnsNotFound() throws Exception {
+        when(processingJobService.cancel(eq(7L))).thenReturn(Optional.empty());
+
+        mockMvc.perform(delete("/api/items/process/jobs/7"))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Test for the `streamProcessingNdjson` method in the `ProcessingJobController` class.
+     * Validates that every progress event is written as one JSON line.
+     */
+    @Test
+    public void testStreamProcessing_WritesNdjson() throws Exception {
+        stubStreamRun();
+
+        MvcResult result = mockMvc.perform(post("/api/items/process/stream").accept(ItemController.NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ItemController.NDJSON_VALUE))
+                .andExpect(content().string(
+                        "{\"type\":\"chunk\",\"firstId\":1,\"lastId\":2,\"processed\":2,\"failed\":0}\n"
+                                + "{\"type\":\"completed\",\"firstId\":null,\"lastId\":null,\"processed\":2,\"failed\":0}\n"));
+    }
+
+    /**
+     * Test for the `streamProcessingEvents` method in the `ProcessingJobController` class.
+     * Validates that every progress event is written as a named Server-Sent Event.
+     */
+    @Test
+    public void testStreamProcessing_WritesServerSentEvents() throws Exception {
+        stubStreamRun();
+
+        MvcResult result = mockMvc.perform(post("/api/items/process/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(
+                        "event: chunk\ndata: {\"type\":\"chunk\",\"firstId\":1,\"lastId\":2,\"processed\":2,\"failed\":0}\n\n"
+                                + "event: completed\ndata: {\"type\":\"completed\",\"firstId\":null,\"lastId\":null,\"processed\":2,\"failed\":0}\n\n"));
+    }
+
+    private void stubStreamRun() throws Exception {
+        doAnswer(invocation -> {
+            ProcessingStreamService.EventSink sink = invocation.getArgument(0);
+            sink.write(new ProcessingEvent(ProcessingEvent.CHUNK, 1L, 2L, 2, 0));
+            sink.write(new ProcessingEvent(ProcessingEvent.COMPLETED, null, null, 2, 0));
+            return null;
+        }).when(processingStreamService).streamRun(any());
+    }
+}
@@ -0,0 +1,327 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.TestData;
+import com.siemens.internship.model.DeadLetter;
+import com.siemens.internship.repository.DeadLetterRepository;
+import com.siemens.internship.repository.ItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest(properties = {"item.processing.chunk-size=200", "item.processing.max-concurrency=2",
+        "item.processing.lease-poll-interval=0"})
+public class ItemBatchProcessorTest {
+    private static final int ITEM_COUNT = 1000;
+
+    @Autowired
+    private ItemBatchProcessor itemBatchProcessor;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DeadLetterRepository deadLetterRepository;
+
+    @SpyBean
+    private ItemService itemService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @BeforeEach
+    public void seedItems() {
+        TestData.seedItems(applicationContext, ITEM_COUNT);
+    }
+
+    @AfterEach
+    public void clearItems() {
+        TestData.clear(applicationContext);
+    }
+
+    /**
+     * Validates that every item is processed exactly once and that the chunk listener sees all of them.
+     */
+    @Test
+    public void testProcessAll_ProcessesEveryItem() {
+        List<Long> processed = new ArrayList<>();
+        Counter processedCounter = meterRegistry.get("item.processing.items").tag("outcome", "processed").counter();
+        double processedBefore = processedCounter.count();
+
+        BatchRunStats stats = itemBatchProcessor.processAll((ids, count, failed) -> processed.addAll(ids));
+
+        assertEquals(ITEM_COUNT, stats.items());
+        assertEquals(ITEM_COUNT / 200, stats.chunks());
+        assertEquals(ITEM_COUNT, processed.size());
+        assertEquals(ITEM_COUNT, processedCounter.count() - processedBefore);
+        assertEquals(0, meterRegistry.get("item.processing.chunks.in.flight").gauge().value());
+        assertTrue(itemRepository.findAll().stream()
+                .allMatch(item -> ItemBatchProcessor.PROCESSED_STATUS.equals(item.getStatus())));
+    }
+
+    /**
+     * Validates that a cancelled run stops submitting chunks and waits for the ones already in flight.
+     */
+    @Test
+    public void testProcessAll_StopsWhenCancelled() {
+        List<Long> processed = new ArrayList<>();
+
+        BatchRunStats stats = itemBatchProcessor.processAll(new ChunkListener() {
+            @Override
+            public void onChunkProcessed(List<Long> ids, int count, int failed) {
+                processed.addAll(ids);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return !processed.isEmpty();
+            }
+        });
+
+        assertTrue(stats.chunks() < ITEM_COUNT / 200);
+        assertEquals(stats.chunks() * 200, processed.size());
+    }
+
+    /**
+     * Compares the chunked engine against the per-item path (one findById and one save per ID)
+     * and validates that it needs a small, constant number of round trips per chunk instead of two per item.
+     * The chunked engine issues one ID page query, one UPDATE statement and one change log INSERT per chunk,
+     * plus the final empty page.
+     */
+    @Test
+    public void testProcessAll_UsesFewerRoundTripsThanPerItemPath() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long start = System.nanoTime();
+        List<Long> ids = itemRepository.findAllIds();
+        for (Long id : ids) {
+            itemRepository.findById(id).ifPresent(item -> {
+                item.setStatus(ItemBatchProcessor.PROCESSED_STATUS);
+                itemRepository.save(item);
+            });
+        }
+        BatchRunStats perItem = new BatchRunStats(ids.size(), 0, ids.size(),
+                statistics.getPrepareStatementCount() - statementsBefore,
+                Duration.ofNanos(System.nanoTime() - start));
+
+        BatchRunStats chunked = itemBatchProcessor.processAll((chunkIds, processed, failed) -> { });
+
+        assertTrue(perItem.roundTripsPerItem() >= 2);
+        assertEquals(3 * chunked.chunks() + 1, chunked.statements());
+        assertTrue(chunked.roundTripsPerItem() < 0.05);
+        assertTrue(chunked.roundTripsPerItem() * 40 < perItem.roundTripsPerItem());
+    }
+
+    /**
+     * Validates that a chunk losing a write conflict is retried instead of being counted as failed.
+     */
+    @Test
+    public void testProcessAll_RetriesConflictingChunk() {
+        Counter retries = meterRegistry.get("item.processing.chunk.retries").counter();
+        double retriesBefore = retries.count();
+        doThrow(new CannotAcquireLockException("Timeout trying to lock table"))
+                .doCallRealMethod()
+                .when(itemService).updateStatus(anyCollection(), eq(ItemBatchProcessor.PROCESSED_STATUS));
+
+        BatchRunStats stats = itemBatchProcessor.processAll((chunkIds, processed, failed) -> { });
+
+        assertEquals(ITEM_COUNT, stats.items());
+        assertEquals(0, stats.failed());
+        assertEquals(1, retries.count() - retriesBefore);
+    }
+
+    /**
+     * Validates that an item that keeps failing is retried on its own, recorded as a dead letter with its cause,
+     * and does not fail the other items of its chunk.
+     */
+    @Test
+    public void testProcessAll_DeadLettersItemThatKeepsFailing() {
+        Long poison = itemRepository.findAllIds().get(123);
+        doAnswer(invocation -> {
+            if (invocation.<Collection<Long>>getArgument(0).contains(poison)) {
+                throw new DataIntegrityViolationException("Value too long for column");
+            }
+            return invocation.callRealMethod();
+        }).when(itemService).updateStatus(anyCollection(), eq(ItemBatchProcessor.PROCESSED_STATUS));
+        Counter itemRetries = meterRegistry.get("item.processing.item.retries").counter();
+        double itemRetriesBefore = itemRetries.count();
+
+        BatchRunStats stats = itemBatchProcessor.processAll((chunkIds, processed, failed) -> { });
+
+        assertEquals(ITEM_COUNT - 1, stats.items());
+        assertEquals(1, stats.failed());
+        assertEquals(2, itemRetries.count() - itemRetriesBefore);
+        List<DeadLetter> deadLetters = deadLetterRepository.findAll();
+        assertEquals(1, deadLetters.size());
+        assertEquals(poison, deadLetters.get(0).getItemId());
+        assertNull(deadLetters.get(0).getJobId());
+        assertEquals("persist", deadLetters.get(0).getStage());
+        assertTrue(deadLetters.get(0).getCause().contains("Value too long for column"));
+        assertEquals("NEW", itemRepository.findById(poison).orElseThrow().getStatus());
+    }
+
+    /**
+     * Validates that a chunk whose processing throws an error is failed and dead-lettered as a whole, so that
+     * the checkpoints move past it and the run finishes the other chunks.
+     */
+    @Test
+    public void testProcessAll_FailsChunkOnError() {
+        List<Long> ids = itemRepository.findAllIds().stream().sorted().toList();
+        Long poison = ids.get(250);
+        doAnswer(invocation -> {
+            if (invocation.<Collection<Long>>getArgument(0).contains(poison)) {
+                throw new StackOverflowError();
+            }
+            return invocation.callRealMethod();
+        }).when(itemService).updateStatus(anyCollection(), eq(ItemBatchProcessor.PROCESSED_STATUS));
+        List<Long> failed = new CopyOnWriteArrayList<>();
+        List<Long> checkpoints = new CopyOnWriteArrayList<>();
+
+        BatchRunStats stats = itemBatchProcessor.processAll(new ChunkListener() {
+            @Override
+            public void onChunkProcessed(List<Long> chunkIds, int processed, int failed) {
+            }
+
+            @Override
+            public void onChunkFailed(List<Long> chunkIds, RuntimeException cause) {
+                failed.addAll(chunkIds);
+            }
+
+            @Override
+            public void onCheckpoint(long checkpointId, long processed, long failed) {
+                checkpoints.add(checkpointId);
+            }
+        });
+
+        assertEquals(ITEM_COUNT - 200, stats.items());
+        assertEquals(200, stats.failed());
+        assertEquals(ids.subList(200, 400), failed.stream().sorted().toList());
+        assertEquals(ids.get(ids.size() - 1), checkpoints.get(checkpoints.size() - 1));
+        List<DeadLetter> deadLetters = deadLetterRepository.findAll();
+        assertEquals(200, deadLetters.size());
+        assertTrue(deadLetters.get(0).getCause().contains("StackOverflowError"));
+    }
+
+    /**
+     * Validates that checkpoints only ever move forward and that the last one covers the whole run,
+     * although chunks finish out of order.
+     */
+    @Test
+    public void testProcessAll_ReportsCheckpointsInOrder() {
+        List<Long> checkpoints = new ArrayList<>();
+        long[] totals = new long[2];
+
+        itemBatchProcessor.processAll(new ChunkListener() {
+            @Override
+            public void onChunkProcessed(List<Long> ids, int processed, int failed) {
+            }
+
+            @Override
+            public void onCheckpoint(long checkpointId, long processed, long failed) {
+                checkpoints.add(checkpointId);
+                totals[0] = processed;
+                totals[1] = failed;
+            }
+        });
+
+        List<Long> ids = itemRepository.findAllIds().stream().sorted().toList();
+        assertFalse(checkpoints.isEmpty());
+        assertEquals(checkpoints.stream().sorted().toList(), checkpoints);
+        assertEquals(ids.get(ids.size() - 1), checkpoints.get(checkpoints.size() - 1));
+        assertEquals(ITEM_COUNT, totals[0]);
+        assertEquals(0, totals[1]);
+    }
+
+    /**
+     * Validates that stopping the executor during a run withdraws the interrupted chunks: they are neither
+     * failed nor dead-lettered, no checkpoint passes them, and the run returns instead of waiting for them.
+     */
+    @Test
+    public void testStopExecutor_WithdrawsInterruptedChunks() throws Exception {
+        List<Long> ids = itemRepository.findAllIds().stream().sorted().toList();
+        CountDownLatch blocked = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            if (invocation.<Collection<Long>>getArgument(0).contains(ids.get(0))) {
+                return invocation.callRealMethod();
+            }
+            blocked.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Connection closed while waiting for the database");
+            }
+            return invocation.callRealMethod();
+        }).when(itemService).updateStatus(anyCollection(), eq(ItemBatchProcessor.PROCESSED_STATUS));
+        List<Long> checkpoints = new CopyOnWriteArrayList<>();
+        List<Long> withdrawn = new CopyOnWriteArrayList<>();
+        List<Long> failed = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<BatchRunStats> run = CompletableFuture.supplyAsync(
+                () -> itemBatchProcessor.processAll(new ChunkListener() {
+                    @Override
+                    public void onChunkProcessed(List<Long> chunkIds, int processed, int failed) {
+                    }
+
+                    @Override
+                    public void onChunkFailed(List<Long> chunkIds, RuntimeException cause) {
+                        failed.addAll(chunkIds);
+                    }
+
+                    @Override
+                    public void onChunkWithdrawn(List<Long> chunkIds) {
+                        withdrawn.addAll(chunkIds);
+                    }
+
+                    @Override
+                    public void onCheckpoint(long checkpointId, long processed, long failed) {
+                        checkpoints.add(checkpointId);
+                    }
+                }));
+        try {
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+            itemBatchProcessor.stopExecutor();
+            BatchRunStats stats = run.get(10, TimeUnit.SECONDS);
+
+            assertEquals(200, stats.items());
+            assertEquals(0, stats.failed());
+            assertEquals(List.of(), failed);
+            assertEquals(400, withdrawn.size());
+            assertEquals(List.of(ids.get(199)), checkpoints);
+            assertEquals(0, deadLetterRepository.count());
+        } finally {
+            itemBatchProcessor.startExecutor();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.TestData;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ReadModelStatistics;
+import com.siemens.internship.model.StatusCount;
+import com.siemens.internship.repository.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "item.read-model.enabled=true",
+        "item.read-model.refresh-interval=1h",
+        "item.read-model.segment-size=4KB",
+        "item.read-model.batch-size=50",
+        "item.changes.settle-time=0s"
+})
+public class ItemReadModelTest {
+
+    @Autowired
+    private ItemReadModel itemReadModel;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    public void seedItems() {
+        List<Item> items = TestData.items(120);
+        for (int i = 0; i < items.size(); i++) {
+            items.get(i).setStatus(i % 3 == 0 ? "DONE" : "NEW");
+            items.get(i).setEmail(i % 10 == 0 ? null : items.get(i).getEmail());
+        }
+        itemService.saveAll(items);
+        ids = itemRepository.findAllIds().stream().sorted().toList();
+        itemReadModel.refresh();
+        itemReadModel.refresh();
+    }
+
+    @AfterEach
+    public void clearItems() {
+        // Deleted through the service, so that the read model drops the items before the change log is emptied
+        itemService.deleteAllById(itemRepository.findAllIds());
+        itemReadModel.refresh();
+        TestData.clear(applicationContext);
+    }
+
+    /**
+     * Validates that items and status counts served from memory match the database, including null fields
+     * and the version.
+     */
+    @Test
+    public void testFindById_MatchesDatabase() {
+        assertTrue(itemReadModel.isLoaded());
+        for (Long id : ids) {
+            assertEquals(itemRepository.findById(id), itemReadModel.findById(id));
+        }
+        assertEquals(sorted(itemRepository.countByStatus()), sorted(itemReadModel.countByStatus()));
+    }
+
+    /**
+     * Validates that a write is read back right away, through the database until the read model applied its
+     * change, and that updates and deletes are applied to the items and the status counts.
+     */
+    @Test
+    public void testRefresh_AppliesWrites() {
+        Item read = itemRepository.findById(ids.get(1)).orElseThrow();
+        itemService.update(new Item(read.getId(), "Ünïcødé ✓", null, "DONE", read.getEmail()), null);
+        itemService.deleteById(ids.get(2));
+
+        assertEquals("Ünïcødé ✓", itemReadModel.findById(ids.get(1)).orElseThrow().getName());
+        assertTrue(itemReadModel.findById(ids.get(2)).isEmpty());
+
+        itemReadModel.refresh();
+
+        Item updated = itemReadModel.findById(ids.get(1)).orElseThrow();
+        assertEquals(itemRepository.findById(ids.get(1)).orElseThrow(), updated);
+        assertNull(updated.getDescription());
+        assertTrue(itemReadModel.findById(ids.get(2)).isEmpty());
+        assertEquals(sorted(itemRepository.countByStatus()), sorted(itemReadModel.countByStatus()));
+        assertEquals(119, itemReadModel.statistics().items());
+    }
+
+    /**
+     * Validates that space of replaced records is reclaimed, so that rewriting the same items over and over does
+     * not grow the off-heap segments, and that slots of deleted items are reused.
+     */
+    @Test
+    public void testRefresh_CompactsReplacedRecords() {
+        for (int round = 0; round < 20; round++) {
+            itemService.updateStatus(ids, "ROUND" + round);
+            itemReadModel.refresh();
+        }
+        itemService.deleteAllById(ids.subList(0, 60));
+        itemService.saveAll(IntStream.range(0, 60)
+                .mapToObj(i -> new Item(null, "New" + i, "Description" + i, "NEW", "new" + i + "@domain.com"))
+                .toList());
+        itemReadModel.refresh();
+
+        ReadModelStatistics statistics = itemReadModel.statistics();
+        assertEquals(120, statistics.items());
+        // Without compaction, the 20 rewrites alone would take about 25 segments
+        assertTrue(statistics.offHeapBytes() <= 8 * 4096, statistics.toString());
+        for (Long id : itemRepository.findAllIds()) {
+            assertEquals(itemRepository.findById(id), itemReadModel.findById(id));
+        }
+        assertEquals(List.of(new StatusCount("NEW", 60), new StatusCount("ROUND19", 60)),
+                sorted(itemReadModel.countByStatus()));
+    }
+
+    private static List<StatusCount> sorted(List<StatusCount> counts) {
+        return counts.stream()
+                .sorted(Comparator.comparing(StatusCount::status, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+}
@@ -0,0 +1,137 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.TestData;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.SearchHit;
+import com.siemens.internship.model.SearchPage;
+import com.siemens.internship.repository.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class ItemSearchServiceTest {
+
+    @Autowired
+    private ItemSearchService itemSearchService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private List<Item> fruits;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @BeforeEach
+    public void seedItems() {
+        fruits = itemService.saveAll(List.of(
+                new Item(null, "Red apple", "Fresh fruit from the orchard", "NEW", "a@domain.com"),
+                new Item(null, "Apple pie", "Baked with red apples", "NEW", "b@domain.com"),
+                new Item(null, "Banana", "A yellow fruit, sweeter than an apple", "NEW", "c@domain.com"),
+                new Item(null, "Café crème", "Hot drink", "NEW", "d@domain.com")));
+        itemService.saveAll(IntStream.range(0, 20)
+                .mapToObj(i -> new Item(null, "Item" + i, "Description " + i, "NEW", "item" + i + "@domain.com"))
+                .toList());
+    }
+
+    @AfterEach
+    public void clearItems() {
+        TestData.clear(applicationContext);
+    }
+
+    /**
+     * Validates that matches in the name rank above matches in the description, with equal scores ordered by ID.
+     */
+    @Test
+    public void testSearch_RanksNameMatchesFirst() {
+        List<SearchHit> hits = itemSearchService.search("apple", 0, 10).hits();
+
+        assertEquals(ids(fruits.get(0), fruits.get(1), fruits.get(2)), hits.stream().map(SearchHit::id).toList());
+        assertEquals(hits.get(0).score(), hits.get(1).score());
+        assertTrue(hits.get(1).score() > hits.get(2).score());
+        assertEquals("Banana", hits.get(2).name());
+    }
+
+    /**
+     * Validates that only items containing every term match, regardless of case, punctuation and accents.
+     */
+    @Test
+    public void testSearch_MatchesAllTermsIgnoringCaseAndAccents() {
+        assertEquals(ids(fruits.get(0), fruits.get(2)), hitIds(itemSearchService.search("Fruit, APPLE!", 0, 10)));
+        assertEquals(ids(fruits.get(3)), hitIds(itemSearchService.search("cafe CREME", 0, 10)));
+        assertEquals(List.of(), hitIds(itemSearchService.search("apple durian", 0, 10)));
+        assertEquals(List.of(), hitIds(itemSearchService.search("?!", 0, 10)));
+    }
+
+    /**
+     * Validates that following the offsets visits every hit exactly once.
+     */
+    @Test
+    public void testSearch_FollowsOffsetsOverAllHits() {
+        List<Long> visited = new ArrayList<>();
+        Integer offset = 0;
+        SearchPage page;
+        do {
+            page = itemSearchService.search("description", offset, 7);
+            visited.addAll(hitIds(page));
+            offset = page.nextOffset();
+        } while (offset != null);
+
+        assertEquals(20, visited.size());
+        assertEquals(20, new HashSet<>(visited).size());
+    }
+
+    /**
+     * Validates that updates replace the terms of an item and deletes remove them, while status changes
+     * keep them.
+     */
+    @Test
+    public void testWrites_UpdateIndex() {
+        Item banana = fruits.get(2);
+        itemService.update(new Item(banana.getId(), "Plantain", banana.getDescription(), "NEW", banana.getEmail()),
+                null);
+        itemService.updateStatus(List.of(fruits.get(1).getId()), "DONE");
+        itemService.deleteById(fruits.get(0).getId());
+
+        assertEquals(List.of(), hitIds(itemSearchService.search("banana", 0, 10)));
+        assertEquals(ids(banana), hitIds(itemSearchService.search("plantain", 0, 10)));
+        assertEquals(ids(fruits.get(1)), hitIds(itemSearchService.search("red", 0, 10)));
+    }
+
+    /**
+     * Validates that reindexing indexes items that were written without going through the service.
+     */
+    @Test
+    public void testReindex_IndexesExistingItems() {
+        Item kiwi = itemRepository.save(new Item(null, "Kiwi", "Green and fuzzy", "NEW", "e@domain.com"));
+        assertEquals(List.of(), hitIds(itemSearchService.search("kiwi", 0, 10)));
+
+        assertEquals(itemRepository.count(), itemSearchService.reindex());
+
+        assertEquals(ids(kiwi), hitIds(itemSearchService.search("fuzzy kiwi", 0, 10)));
+        assertEquals(3, itemSearchService.search("apple", 0, 10).hits().size());
+    }
+
+    private static List<Long> ids(Item... items) {
+        return Stream.of(items).map(Item::getId).toList();
+    }
+
+    private static List<Long> hitIds(SearchPage page) {
+        return page.hits().stream().map(SearchHit::id).toList();
+    }
+}
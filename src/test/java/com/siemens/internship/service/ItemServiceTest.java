@@ -0,0 +1,230 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.TestData;
+import com.siemens.internship.model.ChangeType;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemChange;
+import com.siemens.internship.model.ItemFilter;
+import com.siemens.internship.model.ItemPage;
+import com.siemens.internship.model.ItemSummary;
+import com.siemens.internship.model.StatusCount;
+import com.siemens.internship.repository.ItemChangeRepository;
+import com.siemens.internship.repository.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class ItemServiceTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemChangeRepository itemChangeRepository;
+
+    @Autowired
+    private ItemBatchProcessor itemBatchProcessor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    public void seedItems() {
+        ids = TestData.seedItems(applicationContext, 25);
+    }
+
+    @AfterEach
+    public void clearItems() {
+        TestData.clear(applicationContext);
+    }
+
+    /**
+     * Validates that following the cursors visits every item exactly once, in ID order.
+     */
+    @Test
+    public void testFindPage_FollowsCursorsOverAllItems() {
+        List<Long> visited = new ArrayList<>();
+        Long after = null;
+        ItemPage<Item> page;
+        do {
+            page = itemService.findPage(after, 10);
+            page.items().forEach(item -> visited.add(item.getId()));
+            after = page.nextCursor();
+        } while (after != null);
+
+        assertEquals(ids, visited);
+    }
+
+    /**
+     * Validates that streaming hands every item to the consumer in ID order.
+     */
+    @Test
+    public void testStreamAll_VisitsAllItemsInOrder() {
+        List<Long> visited = new ArrayList<>();
+
+        itemService.streamAll(item -> visited.add(item.getId()));
+
+        assertEquals(ids, visited);
+    }
+
+    /**
+     * Validates that repeated lookups of the same item are served from the cache.
+     */
+    @Test
+    public void testFindById_ServesRepeatedLookupsFromCache() {
+        Item first = itemService.findById(ids.get(0)).orElseThrow();
+        Item second = itemService.findById(ids.get(0)).orElseThrow();
+
+        assertSame(first, second);
+    }
+
+    /**
+     * Validates that updating an item replaces its cached state, including the new version.
+     */
+    @Test
+    public void testUpdate_UpdatesCachedItem() {
+        Item cached = itemService.findById(ids.get(0)).orElseThrow();
+        long version = cached.getVersion();
+
+        itemService.update(new Item(cached.getId(), "Renamed", cached.getDescription(), cached.getStatus(), cached.getEmail()), null);
+
+        Item updated = itemService.findById(ids.get(0)).orElseThrow();
+        assertEquals("Renamed", updated.getName());
+        assertEquals(version + 1, updated.getVersion());
+    }
+
+    /**
+     * Validates that an update based on an outdated version fails and leaves the item unchanged,
+     * while a status change bumps the version like any other write.
+     */
+    @Test
+    public void testUpdate_RejectsOutdatedVersion() {
+        Item read = itemService.findById(ids.get(0)).orElseThrow();
+        long version = read.getVersion();
+        itemService.updateStatus(read.getId(), "CHANGED");
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> itemService.update(
+                new Item(read.getId(), "Renamed", read.getDescription(), read.getStatus(), read.getEmail()), version));
+
+        Item current = itemRepository.findById(read.getId()).orElseThrow();
+        assertEquals("CHANGED", current.getStatus());
+        assertEquals(read.getName(), current.getName());
+        assertEquals(version + 1, current.getVersion());
+    }
+
+    /**
+     * Validates that deleting an item evicts it from the cache.
+     */
+    @Test
+    public void testDeleteById_EvictsCachedItem() {
+        itemService.findById(ids.get(0)).orElseThrow();
+
+        itemService.deleteById(ids.get(0));
+
+        assertTrue(itemService.findById(ids.get(0)).isEmpty());
+    }
+
+    /**
+     * Validates that every write is recorded in the change log in the order it happened, with status changes
+     * to PROCESSED told apart from other updates, and that writes to missing items are not recorded.
+     */
+    @Test
+    public void testWrites_AreRecordedInChangeLog() {
+        Item created = itemService.save(new Item(null, "Created", "Description", "NEW", "created@domain.com"));
+        itemService.updateStatus(List.of(ids.get(0), ids.get(1)), ItemBatchProcessor.PROCESSED_STATUS);
+        Item read = itemRepository.findById(ids.get(2)).orElseThrow();
+        itemService.update(new Item(read.getId(), "Renamed", read.getDescription(), read.getStatus(), read.getEmail()), null);
+        itemService.deleteById(ids.get(3));
+        itemService.deleteById(-1L);
+
+        List<ItemChange> changes = itemChangeRepository.findAll().stream()
+                .sorted(Comparator.comparing(ItemChange::getSeq))
+                .toList();
+
+        assertEquals(List.of(created.getId(), ids.get(0), ids.get(1), ids.get(2), ids.get(3)),
+                changes.stream().map(ItemChange::getItemId).toList());
+        assertEquals(List.of(ChangeType.CREATED, ChangeType.PROCESSED, ChangeType.PROCESSED, ChangeType.UPDATED,
+                ChangeType.DELETED), changes.stream().map(ItemChange::getType).toList());
+    }
+
+    /**
+     * Validates that items changed by a processing run are evicted from the cache.
+     */
+    @Test
+    public void testProcessAll_EvictsCachedItems() {
+        assertEquals("NEW", itemService.findById(ids.get(0)).orElseThrow().getStatus());
+
+        itemBatchProcessor.processAll((ids, processed, failed) -> { });
+
+        assertEquals(ItemBatchProcessor.PROCESSED_STATUS, itemService.findById(ids.get(0)).orElseThrow().getStatus());
+    }
+
+    /**
+     * Validates that the summary query applies every present criterion and pages by ID.
+     */
+    @Test
+    public void testFindSummaries_AppliesFilters() {
+        itemService.updateStatus(ids.subList(0, 5), "PROCESSED");
+
+        ItemPage<ItemSummary> processed = itemService.findSummaries(new ItemFilter("PROCESSED", null, null, null), null, 3);
+        assertEquals(ids.subList(0, 3), processed.items().stream().map(ItemSummary::id).toList());
+        assertEquals(ids.get(2), processed.nextCursor());
+
+        ItemPage<ItemSummary> unprocessed = itemService.findSummaries(new ItemFilter(null, "PROCESSED", null, null), null, 100);
+        assertEquals(ids.subList(5, ids.size()), unprocessed.items().stream().map(ItemSummary::id).toList());
+        assertNull(unprocessed.nextCursor());
+
+        ItemPage<ItemSummary> byEmail = itemService.findSummaries(new ItemFilter(null, null, "item7@domain.com", null), null, 100);
+        assertEquals(List.of("Item7"), byEmail.items().stream().map(ItemSummary::name).toList());
+
+        ItemPage<ItemSummary> byPrefix = itemService.findSummaries(new ItemFilter(null, null, null, "Item2"), null, 100);
+        assertEquals(List.of("Item2", "Item20", "Item21", "Item22", "Item23", "Item24"),
+                byPrefix.items().stream().map(ItemSummary::name).toList());
+
+        assertTrue(itemService.findSummaries(new ItemFilter(null, null, null, "Item_"), null, 100).items().isEmpty());
+    }
+
+    /**
+     * Validates that the items are counted per status.
+     */
+    @Test
+    public void testCountByStatus_CountsEveryStatus() {
+        itemService.updateStatus(ids.subList(0, 5), "PROCESSED");
+
+        assertEquals(Set.of(new StatusCount("PROCESSED", 5), new StatusCount("NEW", 20)),
+                Set.copyOf(itemService.countByStatus()));
+    }
+
+    /**
+     * Validates that status and email lookups are planned as index scans.
+     */
+    @Test
+    public void testFilterColumns_AreIndexed() {
+        String statusPlan = jdbcTemplate.queryForObject("EXPLAIN SELECT id FROM item WHERE status = 'NEW' AND id > 0 ORDER BY id", String.class);
+        String emailPlan = jdbcTemplate.queryForObject("EXPLAIN SELECT id FROM item WHERE email = 'a@domain.com'", String.class);
+
+        assertTrue(statusPlan.toUpperCase().contains("IDX_ITEM_STATUS_ID"), statusPlan);
+        assertTrue(emailPlan.toUpperCase().contains("IDX_ITEM_EMAIL"), emailPlan);
+    }
+}
@@ -0,0 +1,39 @@
+package com.siemens.internship.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongIntHashMapTest {
+
+    /**
+     * Validates that entries survive growing the map and removing other entries from their probe sequences.
+     */
+    @Test
+    public void testPutGetRemove_KeepsEntriesAcrossRehashAndRemoval() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        LongStream.range(-500, 500).forEach(key -> map.put(key, (int) key + 500));
+
+        LongStream.range(-500, 500).filter(key -> key % 3 == 0).forEach(key -> assertEquals(key + 500, map.remove(key)));
+
+        assertEquals(667, map.size());
+        LongStream.range(-500, 500).forEach(key -> assertEquals(key % 3 == 0 ? -1 : key + 500, map.get(key)));
+    }
+
+    /**
+     * Validates that the key marking free buckets is never found, and that removing it leaves the map as it was.
+     */
+    @Test
+    public void testReservedKey_IsNeverFound() {
+        LongIntHashMap map = new LongIntHashMap(16);
+        LongStream.range(0, 10).forEach(key -> map.put(key, (int) key));
+
+        assertEquals(-1, map.get(Long.MIN_VALUE));
+        assertEquals(-1, map.remove(Long.MIN_VALUE));
+        assertEquals(10, map.size());
+        LongStream.range(0, 10).forEach(key -> assertEquals(key, map.get(key)));
+        assertThrows(IllegalArgumentException.class, () -> map.put(Long.MIN_VALUE, 1));
+    }
+}
@@ -0,0 +1,133 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.TestData;
+import com.siemens.internship.Application;
+import com.siemens.internship.model.JobStatus;
+import com.siemens.internship.model.ProcessingJob;
+import com.siemens.internship.model.ProcessingLease;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ProcessingJobRepository;
+import com.siemens.internship.repository.ProcessingLeaseRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs three application contexts against one file-based H2 database, like three nodes behind a load balancer.
+ */
+public class PartitionedProcessingTest {
+    private static final int ITEM_COUNT = 5000;
+    private static final Path DATABASE = Path.of("target", "h2", "partitioned-processing");
+
+    private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    private ItemRepository itemRepository;
+    private ProcessingJobRepository jobRepository;
+    private ProcessingLeaseRepository leaseRepository;
+
+    @BeforeAll
+    public static void startNodes() throws IOException {
+        Files.deleteIfExists(Path.of(DATABASE + ".mv.db"));
+        for (int i = 0; i < 3; i++) {
+            nodes.add(new SpringApplicationBuilder(Application.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--spring.datasource.url=jdbc:h2:file:./" + DATABASE + ";DB_CLOSE_ON_EXIT=FALSE",
+                            "--spring.jmx.enabled=false",
+                            "--item.processing.node-id=node-" + i,
+                            "--item.processing.partition-size=100",
+                            "--item.processing.chunk-size=50",
+                            "--item.processing.lease-duration=2s",
+                            "--item.processing.lease-poll-interval=100ms"));
+        }
+    }
+
+    @AfterAll
+    public static void stopNodes() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+        nodes.clear();
+    }
+
+    @BeforeEach
+    public void seedItems() {
+        itemRepository = nodes.get(0).getBean(ItemRepository.class);
+        jobRepository = nodes.get(0).getBean(ProcessingJobRepository.class);
+        leaseRepository = nodes.get(0).getBean(ProcessingLeaseRepository.class);
+        TestData.seedItems(nodes.get(0), ITEM_COUNT);
+    }
+
+    @AfterEach
+    public void clearItems() {
+        TestData.clear(nodes.get(0));
+    }
+
+    /**
+     * Validates that the partitions of a job are spread over the nodes and every item is counted exactly once.
+     */
+    @Test
+    public void testRunJob_PartitionsAreSharedByAllNodes() {
+        Long id = newJob();
+        nodes.get(0).getBean(ProcessingLeaseService.class).plan(id);
+
+        CompletableFuture.allOf(nodes.stream()
+                .map(node -> CompletableFuture.runAsync(() -> node.getBean(ProcessingJobService.class).runJob(id)))
+                .toArray(CompletableFuture[]::new)).join();
+
+        ProcessingJob job = jobRepository.findById(id).orElseThrow();
+        assertEquals(JobStatus.COMPLETED, job.getStatus());
+        assertEquals(ITEM_COUNT, job.getProcessed());
+        assertEquals(0, job.getFailed());
+        assertTrue(itemRepository.findAll().stream()
+                .allMatch(item -> ItemBatchProcessor.PROCESSED_STATUS.equals(item.getStatus())));
+
+        List<ProcessingLease> leases = leaseRepository.findAll();
+        assertEquals(ITEM_COUNT / 100, leases.size());
+        assertTrue(leases.stream().allMatch(ProcessingLease::isDone));
+        Set<String> owners = leases.stream().map(ProcessingLease::getOwner).collect(Collectors.toSet());
+        assertTrue(owners.size() > 1, "partitions should be spread over the nodes, owners: " + owners);
+    }
+
+    /**
+     * Validates that a partition leased to a node that stopped sending heartbeats is taken over once the lease
+     * expires, and that a node polling for work helps with a job started elsewhere.
+     */
+    @Test
+    public void testRunJob_TakesOverExpiredLease() {
+        Long id = newJob();
+        nodes.get(0).getBean(ProcessingLeaseService.class).plan(id);
+        Long stuck = leaseRepository.findClaimableIds(id, Instant.now(), Limit.of(1)).get(0);
+        leaseRepository.claim(stuck, "dead-node", Instant.now(), Instant.now().plusSeconds(1));
+
+        nodes.get(1).getBean(ProcessingJobService.class).runJob(id);
+
+        ProcessingJob job = jobRepository.findById(id).orElseThrow();
+        assertEquals(JobStatus.COMPLETED, job.getStatus());
+        assertEquals(ITEM_COUNT, job.getProcessed());
+        ProcessingLease takenOver = leaseRepository.findById(stuck).orElseThrow();
+        assertTrue(takenOver.isDone());
+        assertNotEquals("dead-node", takenOver.getOwner());
+    }
+
+    private Long newJob() {
+        ProcessingJob job = new ProcessingJob();
+        job.setQueued(ITEM_COUNT);
+        return jobRepository.save(job).getId();
+    }
+}
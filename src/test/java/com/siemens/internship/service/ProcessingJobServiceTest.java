@@ -0,0 +1,362 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.TestData;
+import com.siemens.internship.exception.ProcessingBusyException;
+import com.siemens.internship.model.ChangeType;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.model.ItemChange;
+import com.siemens.internship.model.JobStatus;
+import com.siemens.internship.model.ProcessingJob;
+import com.siemens.internship.model.ProcessingLease;
+import com.siemens.internship.repository.ItemChangeRepository;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ProcessingJobRepository;
+import com.siemens.internship.repository.ProcessingLeaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"item.processing.chunk-size=100", "item.processing.lease-poll-interval=0"})
+public class ProcessingJobServiceTest {
+
+    @Autowired
+    private ProcessingJobService processingJobService;
+
+    @Autowired
+    private ProcessingJobRepository jobRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ProcessingLeaseRepository leaseRepository;
+
+    @Autowired
+    private ItemChangeRepository itemChangeRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ProcessingLeaseService leaseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @BeforeEach
+    public void seedItems() {
+        TestData.seedItems(applicationContext, 250);
+    }
+
+    @AfterEach
+    public void clearItems() {
+        TestData.clear(applicationContext);
+    }
+
+    /**
+     * Validates that a finished job records its counters and completion state.
+     */
+    @Test
+    public void testRunJob_CompletesWithCounters() {
+        ProcessingJob job = new ProcessingJob();
+        job.setQueued(itemRepository.count());
+        Long id = jobRepository.save(job).getId();
+
+        processingJobService.runJob(id);
+
+        ProcessingJob finished = processingJobService.findById(id).orElseThrow();
+        assertEquals(JobStatus.COMPLETED, finished.getStatus());
+        assertEquals(250, finished.getQueued());
+        assertEquals(250, finished.getProcessed());
+        assertEquals(0, finished.getFailed());
+        assertNotNull(finished.getFinishedAt());
+        assertEquals(0L, finished.getEtaSeconds());
+    }
+
+    /**
+     * Validates that a job cancelled before it starts never processes any item.
+     */
+    @Test
+    public void testRunJob_CancelledBeforeStart() {
+        Long id = jobRepository.save(new ProcessingJob()).getId();
+
+        processingJobService.cancel(id);
+        processingJobService.runJob(id);
+
+        ProcessingJob cancelled = processingJobService.findById(id).orElseThrow();
+        assertEquals(JobStatus.CANCELLED, cancelled.getStatus());
+        assertEquals(0, cancelled.getProcessed());
+        assertTrue(itemRepository.findAll().stream().noneMatch(item -> "PROCESSED".equals(item.getStatus())));
+    }
+
+    /**
+     * Validates that no second job is started while another one is unfinished, and that the rejection
+     * points to the active job.
+     */
+    @Test
+    public void testStartJob_RejectedWhileAnotherJobIsUnfinished() {
+        Long id = jobRepository.save(new ProcessingJob()).getId();
+
+        ProcessingBusyException e = assertThrows(ProcessingBusyException.class, () -> processingJobService.startJob(false));
+
+        assertEquals(id, e.getActiveJobId());
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+        assertEquals(1, jobRepository.count());
+    }
+
+    /**
+     * Validates that a completed job prunes the change log entries before the overlap ahead of its range, and
+     * keeps those a following incremental run reads again.
+     */
+    @Test
+    public void testRunJob_PrunesChangesBeforeOverlap() {
+        List<Long> ids = itemRepository.findAllIds().stream().sorted().toList();
+        long oldest = recordChange(ids.get(0), -60);
+        long overlapStart = recordChange(ids.get(1), -30);
+        long inOverlap = recordChange(ids.get(2), -8);
+        long until = recordChange(ids.get(3), -5);
+        ProcessingJob job = new ProcessingJob();
+        job.setSinceChange(oldest);
+        job.setUntilChange(until);
+        job.setQueued(3);
+        Long id = jobRepository.save(job).getId();
+
+        processingJobService.runJob(id);
+
+        assertEquals(JobStatus.COMPLETED, processingJobService.findById(id).orElseThrow().getStatus());
+        assertFalse(itemChangeRepository.existsById(oldest));
+        assertTrue(itemChangeRepository.existsById(overlapStart));
+        assertTrue(itemChangeRepository.existsById(inOverlap));
+        assertTrue(itemChangeRepository.existsById(until));
+    }
+
+    /**
+     * Validates that two guards, standing in for two nodes sharing the database, starting jobs at the same time
+     * create only one: the other waits for the lock, sees the new job and is rejected.
+     */
+    @Test
+    public void testStartJob_OnlyOneOfTwoNodesStartsJob() throws Exception {
+        AutowireCapableBeanFactory beanFactory = applicationContext.getAutowireCapableBeanFactory();
+        List<ProcessingRunGuard> guards = List.of(
+                beanFactory.createBean(ProcessingRunGuard.class), beanFactory.createBean(ProcessingRunGuard.class));
+        CountDownLatch checking = new CountDownLatch(2);
+        List<CompletableFuture<ProcessingJob>> starts = guards.stream()
+                .map(guard -> CompletableFuture.supplyAsync(() -> guard.startJob(() -> {
+                    checking.countDown();
+                    awaitQuietly(checking);
+                    return jobRepository.save(new ProcessingJob());
+                })))
+                .toList();
+
+        int started = 0;
+        int rejected = 0;
+        for (CompletableFuture<ProcessingJob> start : starts) {
+            try {
+                start.get(10, TimeUnit.SECONDS);
+                started++;
+            } catch (ExecutionException e) {
+                assertInstanceOf(ProcessingBusyException.class, e.getCause());
+                rejected++;
+            }
+        }
+
+        assertEquals(1, started);
+        assertEquals(1, rejected);
+        assertEquals(1, jobRepository.count());
+    }
+
+    /**
+     * Validates that cancelling a queued job no node works on finishes it right away, so it stops blocking new runs.
+     */
+    @Test
+    public void testCancel_FinishesJobNoNodeWorksOn() {
+        Long id = jobRepository.save(new ProcessingJob()).getId();
+
+        processingJobService.cancel(id);
+
+        assertEquals(JobStatus.CANCELLED, processingJobService.findById(id).orElseThrow().getStatus());
+        assertTrue(jobRepository.findFirstByFinishedAtIsNullOrderByIdDesc().isEmpty());
+    }
+
+    /**
+     * Validates that cancelling a job whose partitions were planned by a node that went down skips the orphaned
+     * partitions and finishes the job, so it stops blocking new runs.
+     */
+    @Test
+    public void testCancel_FinishesJobWithOrphanedPartitions() {
+        Long id = jobRepository.save(new ProcessingJob()).getId();
+        leaseService.plan(id);
+        jobRepository.markStarted(id, Instant.now(), JobStatus.QUEUED, JobStatus.RUNNING);
+
+        processingJobService.cancel(id);
+
+        assertEquals(JobStatus.CANCELLED, processingJobService.findById(id).orElseThrow().getStatus());
+        assertTrue(leaseService.isDone(id));
+        assertTrue(jobRepository.findFirstByFinishedAtIsNullOrderByIdDesc().isEmpty());
+    }
+
+    /**
+     * Validates that an incremental job only processes the items created or updated in its range of the change
+     * log, skipping deleted items and changes outside the range, and that its own writes do not count as changes.
+     */
+    @Test
+    public void testRunJob_IncrementalProcessesOnlyChangedItems() {
+        List<Long> ids = itemRepository.findAllIds().stream().sorted().toList();
+        itemService.updateStatus(ids.subList(0, 5), "OUTSIDE");
+        long since = itemChangeRepository.findAll().stream().mapToLong(ItemChange::getSeq).max().orElseThrow();
+        itemService.updateStatus(ids.subList(100, 110), "CHANGED");
+        itemService.deleteById(ids.get(105));
+        Item created = itemService.save(new Item(null, "Created", "Description", "NEW", "created@domain.com"));
+        long until = itemChangeRepository.findAll().stream().mapToLong(ItemChange::getSeq).max().orElseThrow();
+        ProcessingJob job = new ProcessingJob();
+        job.setSinceChange(since);
+        job.setUntilChange(until);
+        job.setQueued(11);
+        Long id = jobRepository.save(job).getId();
+
+        processingJobService.runJob(id);
+
+        ProcessingJob finished = processingJobService.findById(id).orElseThrow();
+        assertEquals(JobStatus.COMPLETED, finished.getStatus());
+        assertTrue(finished.isIncremental());
+        assertEquals(10, finished.getProcessed());
+        List<Long> processed = itemRepository.findAll().stream()
+                .filter(item -> ItemBatchProcessor.PROCESSED_STATUS.equals(item.getStatus()))
+                .map(Item::getId)
+                .sorted()
+                .toList();
+        List<Long> expected = new ArrayList<>(ids.subList(100, 110));
+        expected.remove(ids.get(105));
+        expected.add(created.getId());
+        assertEquals(expected, processed);
+        assertEquals(0, itemChangeRepository.countChangedItems(until, Long.MAX_VALUE, ChangeType.PROCESSABLE));
+    }
+
+    /**
+     * Validates that an incremental job starts the overlap before the range of the last completed job, so that
+     * changes which settled only after that job read the log are processed, while older ones are not.
+     */
+    @Test
+    public void testStartJob_IncrementalRescansOverlap() throws InterruptedException {
+        List<Long> ids = itemRepository.findAllIds().stream().sorted().toList();
+        long old = recordChange(ids.get(0), -60);
+        recordChange(ids.get(1), -8);
+        long until = recordChange(ids.get(2), -5);
+        ProcessingJob last = new ProcessingJob();
+        last.setUntilChange(until);
+        last.setStatus(JobStatus.COMPLETED);
+        last.setFinishedAt(Instant.now());
+        jobRepository.save(last);
+
+        ProcessingJob job = processingJobService.startJob(false);
+        awaitFinished(job.getId());
+
+        assertEquals(old, job.getSinceChange());
+        assertEquals(until, job.getUntilChange());
+        assertEquals(2, job.getQueued());
+        assertEquals(List.of(ids.get(1), ids.get(2)), itemRepository.findAll().stream()
+                .filter(item -> ItemBatchProcessor.PROCESSED_STATUS.equals(item.getStatus()))
+                .map(Item::getId)
+                .sorted()
+                .toList());
+    }
+
+    /**
+     * Validates that a partition left behind by a crashed node is resumed after its checkpoint: the items up to
+     * the checkpoint are not processed again, and the counters recorded with the checkpoint are kept.
+     */
+    @Test
+    public void testRunJob_ResumesPartitionAfterCheckpoint() {
+        List<Long> ids = itemRepository.findAllIds().stream().sorted().toList();
+        ProcessingJob job = new ProcessingJob();
+        job.setQueued(ids.size());
+        job.setProcessed(100);
+        Long id = jobRepository.save(job).getId();
+        ProcessingLease lease = new ProcessingLease(id, ids.get(0), ids.get(ids.size() - 1));
+        lease.setCheckpointId(ids.get(99));
+        lease.setProcessed(100);
+        leaseRepository.save(lease);
+
+        processingJobService.runJob(id);
+
+        ProcessingJob finished = processingJobService.findById(id).orElseThrow();
+        assertEquals(JobStatus.COMPLETED, finished.getStatus());
+        assertEquals(250, finished.getProcessed());
+        assertEquals(100, itemRepository.findAll().stream().filter(item -> "NEW".equals(item.getStatus())).count());
+        assertEquals(ids.get(ids.size() - 1), leaseRepository.findAll().get(0).getCheckpointId());
+    }
+
+    /**
+     * Validates that every checkpoint adds the items done since the previous one to the job, so its progress
+     * moves before the partition completes, and that completing adds only the rest.
+     */
+    @Test
+    public void testCheckpoint_AddsProgressToJob() {
+        ProcessingJob job = new ProcessingJob();
+        job.setQueued(itemRepository.count());
+        Long id = jobRepository.save(job).getId();
+        leaseService.plan(id);
+        jobRepository.markStarted(id, Instant.now().minusSeconds(1), JobStatus.QUEUED, JobStatus.RUNNING);
+        ProcessingLease lease = leaseService.claimNext(id).orElseThrow();
+
+        assertTrue(leaseService.checkpoint(lease, lease.getFirstId() + 39, 40, 0));
+        assertTrue(leaseService.checkpoint(lease, lease.getFirstId() + 79, 38, 2));
+
+        ProcessingJob running = processingJobService.findById(id).orElseThrow();
+        assertEquals(78, running.getProcessed());
+        assertEquals(2, running.getFailed());
+        assertNotNull(running.getEtaSeconds());
+
+        assertTrue(leaseService.complete(lease, 20, 0, null));
+
+        assertEquals(98, processingJobService.findById(id).orElseThrow().getProcessed());
+        ProcessingLease completed = leaseRepository.findById(lease.getId()).orElseThrow();
+        assertEquals(98, completed.getProcessed());
+        assertEquals(2, completed.getFailed());
+    }
+
+    /**
+     * Logs an update of the item that the database clock dates the given number of seconds back.
+     */
+    private long recordChange(Long itemId, int seconds) {
+        jdbcTemplate.update("INSERT INTO item_change (item_id, type, changed_at) "
+                + "VALUES (?, 'UPDATED', DATEADD(SECOND, ?, CURRENT_TIMESTAMP))", itemId, seconds);
+        return jdbcTemplate.queryForObject("SELECT MAX(seq) FROM item_change", Long.class);
+    }
+
+    /**
+     * Gives the other start half a second to reach the same point, which it only does without the run lock.
+     */
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(500, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitFinished(Long id) throws InterruptedException {
+        for (int i = 0; i < 100 && processingJobService.findById(id).orElseThrow().getFinishedAt() == null; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(JobStatus.COMPLETED, processingJobService.findById(id).orElseThrow().getStatus());
+    }
+}
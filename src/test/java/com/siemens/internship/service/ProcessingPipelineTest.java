@@ -0,0 +1,259 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.TestData;
+import com.siemens.internship.exception.ItemRejectedException;
+import com.siemens.internship.model.DeadLetter;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.DeadLetterRepository;
+import com.siemens.internship.repository.ItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.Order;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"item.processing.chunk-size=50", "item.processing.lease-poll-interval=0",
+        "item.processing.stages.enrich.threads=3", "item.processing.stages.enrich.queue-capacity=2",
+        "item.processing.item-retry-backoff=1ms"})
+public class ProcessingPipelineTest {
+    private static final int ITEM_COUNT = 500;
+
+    @TestConfiguration
+    static class Stages {
+        @Bean
+        @Order(1)
+        ItemProcessor validateEmail() {
+            return new ItemProcessor() {
+                @Override
+                public String getName() {
+                    return "validate-email";
+                }
+
+                @Override
+                public Item process(Item item) {
+                    if (!item.getEmail().endsWith("@domain.com")) {
+                        throw new ItemRejectedException("Unsupported email domain");
+                    }
+                    return item;
+                }
+            };
+        }
+
+        @Bean
+        @Order(2)
+        ItemProcessor enrich() {
+            Set<Long> attempted = ConcurrentHashMap.newKeySet();
+            return new ItemProcessor() {
+                @Override
+                public String getName() {
+                    return "enrich";
+                }
+
+                @Override
+                public Item process(Item item) {
+                    if (attempted.add(item.getId())) {
+                        throw new IllegalStateException("Enrichment service unavailable");
+                    }
+                    item.setDescription(item.getDescription() + " (enriched)");
+                    return item;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private ItemBatchProcessor itemBatchProcessor;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DeadLetterRepository deadLetterRepository;
+
+    @Autowired
+    private ProcessingMetrics processingMetrics;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @BeforeEach
+    public void seedItems() {
+        List<Item> items = TestData.items(ITEM_COUNT);
+        for (int i = 0; i < ITEM_COUNT; i += 10) {
+            items.get(i).setEmail("item" + i + "@other.com");
+        }
+        itemRepository.saveAll(items);
+    }
+
+    @AfterEach
+    public void clearItems() {
+        TestData.clear(applicationContext);
+    }
+
+    /**
+     * Validates that every chunk goes through all registered stages, that failing items are retried,
+     * that items rejected by a stage are dead-lettered without retries and not written, and that the rest
+     * of their chunk is still persisted.
+     */
+    @Test
+    public void testProcessAll_RunsItemsThroughAllStages() {
+        List<Long> reported = Collections.synchronizedList(new ArrayList<>());
+
+        BatchRunStats stats = itemBatchProcessor.processAll((ids, processed, failed) -> reported.addAll(ids));
+
+        assertEquals(ITEM_COUNT * 9 / 10, stats.items());
+        assertEquals(ITEM_COUNT / 10, stats.failed());
+        assertEquals(ITEM_COUNT, reported.size());
+        for (Item item : itemRepository.findAll()) {
+            if (item.getEmail().endsWith("@other.com")) {
+                assertEquals("NEW", item.getStatus());
+                assertFalse(item.getDescription().endsWith("(enriched)"));
+            } else {
+                assertEquals(ItemBatchProcessor.PROCESSED_STATUS, item.getStatus());
+                assertTrue(item.getDescription().endsWith("(enriched)"));
+            }
+        }
+        List<DeadLetter> deadLetters = deadLetterRepository.findAll();
+        assertEquals(ITEM_COUNT / 10, deadLetters.size());
+        assertTrue(deadLetters.stream().allMatch(deadLetter -> "validate-email".equals(deadLetter.getStage())
+                && deadLetter.getCause().contains("Unsupported email domain")));
+    }
+
+    /**
+     * Validates that throughput and queue occupancy are published for every stage.
+     */
+    @Test
+    public void testProcessAll_PublishesStageMetrics() {
+        double loadedBefore = stageItems("load", "passed");
+        double rejectedBefore = stageItems("validate-email", "rejected");
+        double enrichedBefore = stageItems("enrich", "passed");
+
+        itemBatchProcessor.processAll((ids, processed, failed) -> { });
+
+        assertEquals(ITEM_COUNT, stageItems("load", "passed") - loadedBefore);
+        assertEquals(ITEM_COUNT / 10, stageItems("validate-email", "rejected") - rejectedBefore);
+        assertEquals(ITEM_COUNT * 9 / 10, stageItems("enrich", "passed") - enrichedBefore);
+        for (String stage : List.of("load", "validate-email", "enrich", "persist")) {
+            assertEquals(0, meterRegistry.get("item.processing.stage.queue").tag("stage", stage).gauge().value());
+            assertEquals(0, meterRegistry.get("item.processing.stage.busy").tag("stage", stage).gauge().value());
+            assertTrue(meterRegistry.get("item.processing.stage.chunk").tag("stage", stage).timer().count() > 0);
+        }
+    }
+
+    private double stageItems(String stage, String outcome) {
+        return meterRegistry.get("item.processing.stage.items").tags("stage", stage, "outcome", outcome)
+                .counter().count();
+    }
+
+    /**
+     * Validates that a stage throwing an error fails its chunk without killing the worker, which goes on
+     * with the next chunk.
+     */
+    @Test
+    public void testPipeline_FailsChunkOnErrorAndKeepsWorking() throws InterruptedException {
+        ProcessingPipeline pipeline = new ProcessingPipeline(processingMetrics)
+                .stage("faulty", 1, 1, chunk -> {
+                    if (chunk.ids.contains(1L)) {
+                        throw new StackOverflowError();
+                    }
+                });
+        BlockingQueue<String> outcomes = new LinkedBlockingQueue<>();
+        ProcessingPipeline.ChunkCallback callback = new ProcessingPipeline.ChunkCallback() {
+            @Override
+            public void completed(ProcessingPipeline.Chunk chunk) {
+                outcomes.add("completed " + chunk.ids);
+            }
+
+            @Override
+            public void failed(ProcessingPipeline.Chunk chunk, String stage, RuntimeException cause) {
+                outcomes.add("failed " + chunk.ids + " in " + stage + ": " + cause.getCause().getClass().getSimpleName());
+            }
+
+            @Override
+            public void withdrawn(ProcessingPipeline.Chunk chunk) {
+                outcomes.add("withdrawn " + chunk.ids);
+            }
+        };
+        pipeline.start();
+        try {
+            pipeline.submit(new ProcessingPipeline.Chunk(null, List.of(1L), callback));
+            pipeline.submit(new ProcessingPipeline.Chunk(null, List.of(2L), callback));
+
+            assertEquals("failed [1] in faulty: StackOverflowError", outcomes.poll(5, TimeUnit.SECONDS));
+            assertEquals("completed [2]", outcomes.poll(5, TimeUnit.SECONDS));
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+
+    /**
+     * Validates that shutting the pipeline down withdraws the chunk a stage is working on, the queued chunks
+     * and chunks submitted afterwards, instead of failing them.
+     */
+    @Test
+    public void testShutdown_WithdrawsUnfinishedChunks() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        ProcessingPipeline pipeline = new ProcessingPipeline(processingMetrics)
+                .stage("blocking", 1, 1, chunk -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(60_000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted", e);
+                    }
+                });
+        BlockingQueue<String> outcomes = new LinkedBlockingQueue<>();
+        ProcessingPipeline.ChunkCallback callback = new ProcessingPipeline.ChunkCallback() {
+            @Override
+            public void completed(ProcessingPipeline.Chunk chunk) {
+                outcomes.add("completed " + chunk.ids);
+            }
+
+            @Override
+            public void failed(ProcessingPipeline.Chunk chunk, String stage, RuntimeException cause) {
+                outcomes.add("failed " + chunk.ids);
+            }
+
+            @Override
+            public void withdrawn(ProcessingPipeline.Chunk chunk) {
+                outcomes.add("withdrawn " + chunk.ids);
+            }
+        };
+        pipeline.start();
+        pipeline.submit(new ProcessingPipeline.Chunk(null, List.of(1L), callback));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        pipeline.submit(new ProcessingPipeline.Chunk(null, List.of(2L), callback));
+
+        pipeline.shutdown();
+        pipeline.submit(new ProcessingPipeline.Chunk(null, List.of(3L), callback));
+
+        Set<String> received = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            received.add(outcomes.poll(5, TimeUnit.SECONDS));
+        }
+        assertEquals(Set.of("withdrawn [1]", "withdrawn [2]", "withdrawn [3]"), received);
+        assertNull(outcomes.poll(100, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,130 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.TestData;
+import com.siemens.internship.model.ProcessingEvent;
+import com.siemens.internship.repository.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = {"item.processing.chunk-size=100", "item.processing.max-concurrency=2",
+        "item.processing.stream-buffer-size=1"})
+public class ProcessingStreamServiceTest {
+    private static final int ITEM_COUNT = 1000;
+
+    @Autowired
+    private ProcessingStreamService processingStreamService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @SpyBean
+    private ItemService itemService;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @BeforeEach
+    public void seedItems() {
+        TestData.seedItems(applicationContext, ITEM_COUNT);
+    }
+
+    @AfterEach
+    public void clearItems() {
+        TestData.clear(applicationContext);
+    }
+
+    /**
+     * Validates that a slow client receives an event per chunk followed by the completed event.
+     */
+    @Test
+    public void testStreamRun_StreamsEveryChunkThenCompletes() throws IOException {
+        List<ProcessingEvent> events = new ArrayList<>();
+
+        processingStreamService.streamRun(event -> {
+            sleep(5);
+            events.add(event);
+        });
+
+        assertEquals(ITEM_COUNT / 100 + 1, events.size());
+        assertEquals(ITEM_COUNT, events.stream()
+                .filter(event -> ProcessingEvent.CHUNK.equals(event.type()))
+                .mapToLong(ProcessingEvent::processed)
+                .sum());
+        ProcessingEvent completed = events.get(events.size() - 1);
+        assertEquals(ProcessingEvent.COMPLETED, completed.type());
+        assertEquals(ITEM_COUNT, completed.processed());
+    }
+
+    /**
+     * Validates that the event of a chunk reports the items that were dead-lettered after its items were retried
+     * one by one, next to the ones processed.
+     */
+    @Test
+    public void testStreamRun_ReportsFailedItemsOfChunk() throws IOException {
+        List<Long> ids = itemRepository.findAllIds().stream().sorted().toList();
+        Long poison = ids.get(150);
+        doAnswer(invocation -> {
+            if (invocation.<Collection<Long>>getArgument(0).contains(poison)) {
+                throw new DataIntegrityViolationException("Value too long for column");
+            }
+            return invocation.callRealMethod();
+        }).when(itemService).updateStatus(anyCollection(), eq(ItemBatchProcessor.PROCESSED_STATUS));
+        List<ProcessingEvent> events = new ArrayList<>();
+
+        processingStreamService.streamRun(events::add);
+
+        ProcessingEvent chunk = events.stream()
+                .filter(event -> ids.get(100).equals(event.firstId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(ProcessingEvent.CHUNK, chunk.type());
+        assertEquals(99, chunk.processed());
+        assertEquals(1, chunk.failed());
+        assertEquals(0, events.stream()
+                .filter(event -> ProcessingEvent.CHUNK.equals(event.type()) && event != chunk)
+                .mapToLong(ProcessingEvent::failed)
+                .sum());
+        ProcessingEvent completed = events.get(events.size() - 1);
+        assertEquals(ITEM_COUNT - 1, completed.processed());
+        assertEquals(1, completed.failed());
+    }
+
+    /**
+     * Validates that a client going away cancels the run instead of letting it finish unobserved.
+     */
+    @Test
+    public void testStreamRun_CancelsWhenClientFails() {
+        assertThrows(IOException.class, () -> processingStreamService.streamRun(event -> {
+            throw new IOException("Broken pipe");
+        }));
+
+        long processed = itemRepository.findAll().stream()
+                .filter(item -> ItemBatchProcessor.PROCESSED_STATUS.equals(item.getStatus()))
+                .count();
+        assertTrue(processed < ITEM_COUNT, "run should stop early, processed " + processed);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}